@@ -0,0 +1,57 @@
+package org.e2e.labe2e03.dto.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.e2e.labe2e03.config.DateTimeJacksonModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización de una página de búsqueda con un ObjectMapper configurado como el de Spring MVC (fechas con DateTimeJacksonModule)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FlightSearchResponseSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    int pageSize;
+
+    private ObjectMapper objectMapper;
+    private FlightSearchResponseDTO response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new DateTimeJacksonModule())
+                .build();
+        List<FlightDTO> items = new ArrayList<>(pageSize);
+        LocalDateTime departure = LocalDateTime.of(2030, 6, 1, 10, 15, 30);
+        for (int i = 0; i < pageSize; i++) {
+            items.add(new FlightDTO(String.valueOf(i + 1), "FlyAway", String.format("FA%03d", i % 1000),
+                    departure.plusHours(i), departure.plusHours(i + 2), 180));
+        }
+        response = new FlightSearchResponseDTO(items, "YXNjfDIwMzAtMDYtMDFUMTA6MTU6MzB8MjA");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
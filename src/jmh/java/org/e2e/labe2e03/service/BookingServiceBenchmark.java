@@ -0,0 +1,42 @@
+package org.e2e.labe2e03.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.e2e.labe2e03.dto.response.BookingResponseDTO;
+import org.e2e.labe2e03.repository.BookingSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BookingServiceBenchmark {
+
+    private BookingService bookingService;
+    private BookingSummary summary;
+
+    @Setup
+    public void setUp() {
+        bookingService = new BookingService(null, null, null, null, null, null, null, new SimpleMeterRegistry());
+        summary = new BookingSummary(7L, LocalDateTime.of(2030, 5, 20, 9, 0, 1, 123_456_789), 1L, "FA123",
+                42L, "Ada", "Lovelace");
+    }
+
+    @Benchmark
+    public BookingResponseDTO convertToDTO() {
+        return bookingService.convertToDTO(summary);
+    }
+}
@@ -0,0 +1,77 @@
+package org.e2e.labe2e03.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
+import org.e2e.labe2e03.dto.response.FlightDTO;
+import org.e2e.labe2e03.entity.Flight;
+import org.e2e.labe2e03.repository.FlightSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos de CPU de {@link FlightService} sin BD: parseo de fechas por el camino rápido de {@link DateTimeCodec}
+ * (ISO local, sin formatter) contra el formato del tester, que va directo al {@code DateTimeFormatter} de respaldo,
+ * validación de un vuelo nuevo y mapeo a DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FlightServiceBenchmark {
+
+    private FlightService flightService;
+    private NewFlightRequestDTO newFlight;
+    private FlightSummary summary;
+
+    @Setup
+    public void setUp() {
+        flightService = new FlightService(null, null, null, new SimpleMeterRegistry());
+        newFlight = new NewFlightRequestDTO("FlyAway", "FA123",
+                "2030-06-01T10:15:30", "2030-06-01T12:45:00", 180);
+        summary = new FlightSummary(1L, "FlyAway", "FA123",
+                LocalDateTime.of(2030, 6, 1, 10, 15, 30), LocalDateTime.of(2030, 6, 1, 12, 45), 180);
+    }
+
+    @Benchmark
+    public LocalDateTime parseIsoDateTimeFastPath() {
+        return flightService.parseDateTime("2030-06-01T10:15:30");
+    }
+
+    @Benchmark
+    public LocalDateTime parseTesterDateTimeFallback() {
+        return flightService.parseDateTime("Sat Jun 01 10:15:30 UTC 2030");
+    }
+
+    // No es ISO local ni empieza con letra: cae al formatter ISO de respaldo y termina en excepción
+    @Benchmark
+    public Object parseInvalidDateTime() {
+        try {
+            return flightService.parseDateTime("01/06/2030 10:15");
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Flight toValidatedFlight() {
+        return flightService.toValidatedFlight(newFlight);
+    }
+
+    @Benchmark
+    public FlightDTO convertToDTO() {
+        return flightService.convertToDTO(summary);
+    }
+}
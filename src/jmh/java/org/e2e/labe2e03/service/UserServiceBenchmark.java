@@ -0,0 +1,52 @@
+package org.e2e.labe2e03.service;
+
+import org.e2e.labe2e03.dto.request.RegisterUserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Validaciones por regex del registro de usuarios (sin el hash de BCrypt)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserServiceBenchmark {
+
+    private UserService userService;
+    private RegisterUserDTO valid;
+    private RegisterUserDTO invalidPassword;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService(null, null);
+        valid = new RegisterUserDTO("Ada", "Lovelace", "ada.lovelace@flyaway.test", "Analytical1843");
+        invalidPassword = new RegisterUserDTO("Ada", "Lovelace", "ada.lovelace@flyaway.test", "analytical");
+    }
+
+    @Benchmark
+    public RegisterUserDTO validateRegistration() {
+        userService.validateUserRegistration(valid);
+        return valid;
+    }
+
+    @Benchmark
+    public Object validateRejectedRegistration() {
+        try {
+            userService.validateUserRegistration(invalidPassword);
+            return invalidPassword;
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -1,9 +1,35 @@
 package org.e2e.labe2e03.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
+
+    @Bean
+    public CountingAbortPolicy flightImportRejectionPolicy() {
+        return new CountingAbortPolicy();
+    }
+
+    // Pool acotado para /flights/create-many: cola limitada, y lo que no entra se rechaza (503 en el controller)
+    @Bean
+    public ThreadPoolTaskExecutor flightImportExecutor(@Value("${flights.import.parallelism:4}") int parallelism,
+                                                       @Value("${flights.import.queue-capacity:32}") int queueCapacity,
+                                                       CountingAbortPolicy flightImportRejectionPolicy) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(flightImportRejectionPolicy);
+        executor.setThreadNamePrefix("flight-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
 }
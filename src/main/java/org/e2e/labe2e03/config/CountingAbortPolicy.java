@@ -0,0 +1,22 @@
+package org.e2e.labe2e03.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Igual que AbortPolicy, pero cuenta los rechazos para exponerlos como métrica
+public class CountingAbortPolicy implements RejectedExecutionHandler {
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejected.incrementAndGet();
+        throw new RejectedExecutionException("Task rejected: queue of " + executor.getQueue().size() + " is full");
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
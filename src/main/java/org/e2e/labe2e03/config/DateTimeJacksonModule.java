@@ -0,0 +1,68 @@
+package org.e2e.labe2e03.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import org.e2e.labe2e03.service.DateTimeCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+// Spring Boot registra este módulo en el ObjectMapper de MVC; reemplaza el (de)serializador de LocalDateTime de jsr310
+@Component
+public class DateTimeJacksonModule extends SimpleModule {
+
+    public DateTimeJacksonModule() {
+        super("flyaway-date-time");
+        addSerializer(LocalDateTime.class, new LocalDateTimeSerializer());
+        addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer());
+    }
+
+    public static class LocalDateTimeSerializer extends StdScalarSerializer<LocalDateTime> {
+
+        // Un buffer por hilo: la fecha se escribe directo en el generador sin crear el String intermedio
+        private static final ThreadLocal<char[]> BUFFER =
+                ThreadLocal.withInitial(() -> new char[DateTimeCodec.MAX_FORMATTED_LENGTH]);
+
+        public LocalDateTimeSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (value.getYear() < 0 || value.getYear() > 9999) {
+                generator.writeString(DateTimeCodec.format(value));
+                return;
+            }
+            char[] buffer = BUFFER.get();
+            generator.writeString(buffer, 0, DateTimeCodec.formatTo(value, buffer));
+        }
+    }
+
+    public static class LocalDateTimeDeserializer extends StdScalarDeserializer<LocalDateTime> {
+
+        public LocalDateTimeDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+            }
+            try {
+                return DateTimeCodec.parse(parser.getText());
+            } catch (IllegalArgumentException e) {
+                return (LocalDateTime) context.handleWeirdStringValue(LocalDateTime.class, parser.getText(),
+                        e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.e2e.labe2e03.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+@Configuration
+public class TemplateConfig {
+
+    // Plantillas de texto para los emails: se parsean una vez y quedan en la caché del motor.
+    // Va antes del resolver HTML de Spring Boot y sólo atiende "email/*".
+    @Bean
+    public ITemplateResolver emailTemplateResolver() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".txt");
+        resolver.setTemplateMode(TemplateMode.TEXT);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setResolvablePatterns(Set.of("email/*"));
+        resolver.setCacheable(true);
+        resolver.setOrder(1);
+        return resolver;
+    }
+}
@@ -2,15 +2,10 @@ package org.e2e.labe2e03.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.e2e.labe2e03.dto.request.LoginDTO;
 import org.e2e.labe2e03.dto.response.AuthTokenDTO;
 import org.e2e.labe2e03.entity.User;
-import org.e2e.labe2e03.service.CustomUserDetailsService;
 import org.e2e.labe2e03.security.JwtUtil;
 import org.e2e.labe2e03.service.UserService;
 
@@ -19,8 +14,6 @@ import org.e2e.labe2e03.service.UserService;
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
-    private final CustomUserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final UserService userService;
 
@@ -33,22 +26,9 @@ public class AuthController {
             throw new IllegalArgumentException("Password is mandatory");
         }
 
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(dto.getEmail(), dto.getPassword())
-            );
-        } catch (BadCredentialsException e) {
-            if (!userService.findByEmail(dto.getEmail()).isPresent()) {
-                throw new IllegalArgumentException("Unknown email");
-            }
-            throw new IllegalArgumentException("Wrong password");
-        }
-
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(dto.getEmail());
-        User user = userService.findByEmail(dto.getEmail())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        final String jwt = jwtUtil.generateToken(userDetails.getUsername(), user.getId());
+        // Un solo acceso a la tabla de usuarios: verificar el hash y emitir el token con el mismo User
+        User user = userService.authenticate(dto.getEmail(), dto.getPassword());
+        final String jwt = jwtUtil.generateToken(user.getEmail(), user.getId());
 
         return ResponseEntity.ok(new AuthTokenDTO(jwt));
     }
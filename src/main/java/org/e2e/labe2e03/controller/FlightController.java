@@ -1,18 +1,31 @@
 package org.e2e.labe2e03.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.e2e.labe2e03.dto.request.FlightBookManyRequestDTO;
 import org.e2e.labe2e03.dto.request.FlightBookRequestDTO;
 import org.e2e.labe2e03.dto.request.NewFlightManyRequestDTO;
 import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
 import org.e2e.labe2e03.dto.response.*;
 import org.e2e.labe2e03.security.JwtUtil;
 import org.e2e.labe2e03.service.BookingService;
+import org.e2e.labe2e03.service.EmailService;
+import org.e2e.labe2e03.service.FlightImportJob;
+import org.e2e.labe2e03.service.FlightImportService;
 import org.e2e.labe2e03.service.FlightService;
+import org.e2e.labe2e03.service.SeatInventoryService;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/flights")
@@ -20,8 +33,12 @@ import jakarta.servlet.http.HttpServletRequest;
 public class FlightController {
 
     private final FlightService flightService;
+    private final FlightImportService flightImportService;
     private final BookingService bookingService;
+    private final EmailService emailService;
+    private final SeatInventoryService seatInventoryService;
     private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/create")
     public ResponseEntity<NewIdDTO> createFlight(@RequestBody NewFlightRequestDTO dto) {
@@ -32,9 +49,29 @@ public class FlightController {
 
     @PostMapping("/create-many")
     public ResponseEntity<NewFlightManyResponseDTO> createManyFlights(@RequestBody NewFlightManyRequestDTO dto) {
-        flightService.createFlightsAsync(dto.getInputs()); // Cambiar de getFlights() a getInputs()
+        FlightImportJob job = flightImportService.startImport(dto.getInputs()); // Cambiar de getFlights() a getInputs()
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new NewFlightManyResponseDTO("Flights creation started"));
+                .body(new NewFlightManyResponseDTO("Flights creation started", job.getId()));
+    }
+
+    @PostMapping(value = "/create-many", consumes = "application/x-ndjson")
+    public ResponseEntity<NewFlightManyResponseDTO> createManyFlightsStreaming(HttpServletRequest request)
+            throws IOException {
+        FlightImportJob job = flightImportService.startStreamingImport(request.getInputStream());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new NewFlightManyResponseDTO("Flights creation started", job.getId()));
+    }
+
+    @GetMapping("/create-many/executor")
+    public ResponseEntity<FlightImportExecutorStatsDTO> getImportExecutorStats() {
+        return ResponseEntity.ok(flightImportService.getExecutorStats());
+    }
+
+    @GetMapping("/create-many/{jobId}")
+    public ResponseEntity<FlightImportJobDTO> getImportJob(@PathVariable String jobId) {
+        return flightImportService.findJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/search")
@@ -42,26 +79,79 @@ public class FlightController {
             @RequestParam(required = false) String flightNumber,
             @RequestParam(required = false) String airlineName,
             @RequestParam(required = false) String estDepartureTimeFrom,
-            @RequestParam(required = false) String estDepartureTimeTo) {
+            @RequestParam(required = false) String estDepartureTimeTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
-        var flights = flightService.searchFlights(flightNumber, airlineName,
+        return ResponseEntity.ok(flightService.searchFlights(flightNumber, airlineName,
+                estDepartureTimeFrom, estDepartureTimeTo, sort, cursor, limit));
+    }
+
+    @GetMapping("/search/cache")
+    public ResponseEntity<FlightSearchCacheStatsDTO> getSearchCacheStats() {
+        return ResponseEntity.ok(flightService.getSearchCacheStats());
+    }
+
+    // Modo streaming para exportar todos los resultados: mismo formato {"items": [...]} escrito a medida que se leen
+    @GetMapping(value = "/search", params = "stream=true")
+    public void streamFlights(
+            @RequestParam(required = false) String flightNumber,
+            @RequestParam(required = false) String airlineName,
+            @RequestParam(required = false) String estDepartureTimeFrom,
+            @RequestParam(required = false) String estDepartureTimeTo,
+            HttpServletResponse response) throws IOException {
+
+        // Los filtros se validan antes de escribir nada: una vez abierto el generador ya no se puede responder 400
+        FlightService.StreamQuery query = flightService.prepareStream(flightNumber, airlineName,
                 estDepartureTimeFrom, estDepartureTimeTo);
-        return ResponseEntity.ok(new FlightSearchResponseDTO(flights));
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            flightService.streamFlights(query, flight -> {
+                try {
+                    generator.writePOJO(flight);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
     }
 
     @PostMapping("/book")
     public ResponseEntity<NewIdDTO> bookFlight(@RequestBody FlightBookRequestDTO dto,
                                                HttpServletRequest request) {
+        Long userId = extractUserId(request);
+
+        Long bookingId = bookingService.bookFlight(dto, userId);
+        return ResponseEntity.ok(new NewIdDTO(String.valueOf(bookingId))); // Cambiado a .ok()
+    }
+
+    @PostMapping("/book-many")
+    public ResponseEntity<NewIdsDTO> bookManyFlights(@RequestBody FlightBookManyRequestDTO dto,
+                                                     HttpServletRequest request) {
+        Long userId = extractUserId(request);
+
+        List<Long> bookingIds = bookingService.bookFlights(dto, userId);
+        return ResponseEntity.ok(new NewIdsDTO(bookingIds.stream().map(String::valueOf).toList()));
+    }
+
+    private Long extractUserId(HttpServletRequest request) {
+        if (request.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE) instanceof Claims claims) {
+            return claims.get("userId", Long.class);
+        }
+
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             throw new IllegalArgumentException("Authorization token is required");
         }
 
         String token = authHeader.substring(7);
-        Long userId = jwtUtil.extractUserId(token);
-
-        Long bookingId = bookingService.bookFlight(dto, userId);
-        return ResponseEntity.ok(new NewIdDTO(String.valueOf(bookingId))); // Cambiado a .ok()
+        return jwtUtil.extractUserId(token);
     }
 
     @GetMapping("/book/{id}")
@@ -70,4 +160,16 @@ public class FlightController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping(value = "/book/{id}/confirmation", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getBookingConfirmation(@PathVariable Long id) {
+        return emailService.findConfirmation(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/inventory/consistency")
+    public ResponseEntity<SeatInventoryCheckDTO> checkSeatInventory() {
+        return ResponseEntity.ok(seatInventoryService.checkConsistency());
+    }
 }
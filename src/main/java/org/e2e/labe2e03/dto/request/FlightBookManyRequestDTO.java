@@ -0,0 +1,14 @@
+package org.e2e.labe2e03.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightBookManyRequestDTO {
+    private List<Long> flightIds;
+}
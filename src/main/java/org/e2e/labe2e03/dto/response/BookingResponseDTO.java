@@ -5,18 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonPropertyOrder({"id", "bookingDate", "flightId", "flightNumber", "customerId", "customerFirstName", "customerLastName"})
 public class BookingResponseDTO {
     private String id;
-    private String bookingDate;
+    private LocalDateTime bookingDate;
     private String flightId;
     private String flightNumber;
     private String customerId;
     private String customerFirstName;
     private String customerLastName;
-    private String estArrivalTime;
-    private String estDepartureTime;
+    private LocalDateTime estArrivalTime;
+    private LocalDateTime estDepartureTime;
 }
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,7 +13,7 @@ public class FlightDTO {
     private String id;
     private String airlineName;
     private String flightNumber;
-    private String estDepartureTime;
-    private String estArrivalTime;
+    private LocalDateTime estDepartureTime;
+    private LocalDateTime estArrivalTime;
     private Integer availableSeats;
 }
@@ -0,0 +1,17 @@
+package org.e2e.labe2e03.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightImportErrorDTO {
+    private Integer row;
+    private String flightNumber;
+    private String error;
+    // Fila original, para reenviar solo las que fallaron
+    private NewFlightRequestDTO input;
+}
@@ -0,0 +1,17 @@
+package org.e2e.labe2e03.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightImportExecutorStatsDTO {
+    private Integer parallelism;
+    private Integer activeWorkers;
+    private Integer queuedTasks;
+    private Integer queueCapacity;
+    private Long completedTasks;
+    private Long rejectedTasks;
+}
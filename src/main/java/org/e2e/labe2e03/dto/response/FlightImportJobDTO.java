@@ -0,0 +1,23 @@
+package org.e2e.labe2e03.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightImportJobDTO {
+    private String jobId;
+    private String status;
+    private Integer submittedRows;
+    private Integer processedRows;
+    private Integer succeededRows;
+    private Integer failedRows;
+    private Double rowsPerSecond;
+    private String startedAt;
+    private String finishedAt;
+    private List<FlightImportErrorDTO> errors;
+}
@@ -0,0 +1,17 @@
+package org.e2e.labe2e03.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightSearchCacheStatsDTO {
+    private Integer size;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Long invalidations;
+    private Double hitRate;
+}
@@ -13,4 +13,8 @@ import java.util.List;
 public class FlightSearchResponseDTO {
     @JsonProperty("items")
     private List<FlightDTO> items;
+
+    // Token opaco para pedir la página siguiente; null si no hay más resultados
+    @JsonProperty("nextCursor")
+    private String nextCursor;
 }
@@ -9,4 +9,5 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class NewFlightManyResponseDTO {
     private String message;
-}
\ No newline at end of file
+    private String jobId;
+}
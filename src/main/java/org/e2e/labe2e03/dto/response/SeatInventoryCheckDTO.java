@@ -0,0 +1,16 @@
+package org.e2e.labe2e03.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatInventoryCheckDTO {
+    private String mode;
+    private int checkedFlights;
+    private List<SeatInventoryMismatchDTO> mismatches;
+}
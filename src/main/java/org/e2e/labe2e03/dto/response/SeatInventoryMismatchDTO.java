@@ -0,0 +1,14 @@
+package org.e2e.labe2e03.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatInventoryMismatchDTO {
+    private String flightId;
+    private Integer trackedRemaining;
+    private Integer expectedRemaining;
+}
@@ -0,0 +1,55 @@
+package org.e2e.labe2e03.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    public enum Status { PENDING, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sin FK: el mensaje pendiente no debe impedir borrar el booking
+    @Column(nullable = false)
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public static EmailOutbox pendingFor(Long bookingId) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox outbox = new EmailOutbox();
+        outbox.setBookingId(bookingId);
+        outbox.setStatus(Status.PENDING);
+        outbox.setAttempts(0);
+        outbox.setCreatedAt(now);
+        outbox.setNextAttemptAt(now);
+        return outbox;
+    }
+}
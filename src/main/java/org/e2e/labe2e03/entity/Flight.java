@@ -10,7 +10,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = {
+        @Index(name = "idx_flights_departure_id", columnList = "est_departure_time, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,6 +37,10 @@ public class Flight {
     @Column(nullable = false)
     private Integer availableSeats;
 
+    // Asientos que aún se pueden reservar; se decrementa de forma atómica en cada booking
+    @Column(nullable = false)
+    private Integer remainingSeats;
+
     @OneToMany(mappedBy = "flight", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Booking> bookings = new ArrayList<>();
 }
@@ -0,0 +1,14 @@
+package org.e2e.labe2e03.exception;
+
+import lombok.Getter;
+
+// Rechazo de negocio de un booking; sigue siendo un 400 y lleva el motivo para las métricas
+@Getter
+public class BookingRejectedException extends IllegalArgumentException {
+    private final String outcome;
+
+    public BookingRejectedException(String outcome, String message) {
+        super(message);
+        this.outcome = outcome;
+    }
+}
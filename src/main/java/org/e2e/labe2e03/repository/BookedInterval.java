@@ -0,0 +1,6 @@
+package org.e2e.labe2e03.repository;
+
+import java.time.LocalDateTime;
+
+public record BookedInterval(LocalDateTime departure, LocalDateTime arrival) {
+}
@@ -6,7 +6,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -20,4 +22,24 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findOverlappingBookings(@Param("customerId") Long customerId,
                                           @Param("departureTime") java.time.LocalDateTime departureTime,
                                           @Param("arrivalTime") java.time.LocalDateTime arrivalTime);
+
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.customer.id = :customerId AND " +
+            "b.flight.estDepartureTime <= :arrivalTime AND b.flight.estArrivalTime >= :departureTime")
+    boolean existsOverlappingBooking(@Param("customerId") Long customerId,
+                                     @Param("departureTime") java.time.LocalDateTime departureTime,
+                                     @Param("arrivalTime") java.time.LocalDateTime arrivalTime);
+
+    @Query("SELECT new org.e2e.labe2e03.repository.BookedInterval(" +
+            "b.flight.estDepartureTime, b.flight.estArrivalTime) " +
+            "FROM Booking b WHERE b.customer.id = :customerId")
+    List<BookedInterval> findBookedIntervals(@Param("customerId") Long customerId);
+
+    @Query("SELECT new org.e2e.labe2e03.repository.BookingSummary(" +
+            "b.id, b.bookingDate, f.id, f.flightNumber, b.customer.id, b.customerFirstName, b.customerLastName) " +
+            "FROM Booking b JOIN b.flight f WHERE b.id = :id")
+    Optional<BookingSummary> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.flight JOIN FETCH b.customer WHERE b.id IN :ids")
+    List<Booking> findWithFlightByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,7 @@
+package org.e2e.labe2e03.repository;
+
+import java.time.LocalDateTime;
+
+public record BookingSummary(Long id, LocalDateTime bookingDate, Long flightId, String flightNumber,
+                             Long customerId, String customerFirstName, String customerLastName) {
+}
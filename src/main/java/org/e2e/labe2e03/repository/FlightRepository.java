@@ -1,14 +1,22 @@
 package org.e2e.labe2e03.repository;
 
+import jakarta.persistence.QueryHint;
 import org.e2e.labe2e03.entity.Flight;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, Long> {
@@ -17,13 +25,101 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
 
     Optional<Flight> findByFlightNumber(String flightNumber);
 
-    @Query("SELECT f FROM Flight f WHERE " +
+    @Query("SELECT f.flightNumber FROM Flight f WHERE f.flightNumber IN :flightNumbers")
+    Set<String> findExistingFlightNumbers(@Param("flightNumbers") Collection<String> flightNumbers);
+
+    @Modifying
+    @Query("UPDATE Flight f SET f.remainingSeats = f.remainingSeats - 1 " +
+            "WHERE f.id = :id AND f.remainingSeats > 0")
+    int decrementRemainingSeats(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Flight f SET f.remainingSeats = f.availableSeats")
+    int resetRemainingSeats();
+
+    @Query("SELECT new org.e2e.labe2e03.repository.SeatInventoryRow(" +
+            "f.id, f.availableSeats, f.remainingSeats, COUNT(b)) " +
+            "FROM Flight f LEFT JOIN f.bookings b " +
+            "GROUP BY f.id, f.availableSeats, f.remainingSeats")
+    List<SeatInventoryRow> findSeatInventory();
+
+    String SUMMARY_SELECT = "SELECT new org.e2e.labe2e03.repository.FlightSummary(" +
+            "f.id, f.airlineName, f.flightNumber, f.estDepartureTime, f.estArrivalTime, f.availableSeats) ";
+
+    String SEARCH_FILTER =
             "(:flightNumber IS NULL OR LOWER(f.flightNumber) LIKE LOWER(CONCAT('%', :flightNumber, '%'))) AND " +
             "(:airlineName IS NULL OR LOWER(f.airlineName) LIKE LOWER(CONCAT('%', :airlineName, '%'))) AND " +
             "(:fromDate IS NULL OR f.estDepartureTime >= :fromDate) AND " +
-            "(:toDate IS NULL OR f.estDepartureTime <= :toDate)")
-    List<Flight> searchFlights(@Param("flightNumber") String flightNumber,
-                               @Param("airlineName") String airlineName,
-                               @Param("fromDate") LocalDateTime fromDate,
-                               @Param("toDate") LocalDateTime toDate);
+            "(:toDate IS NULL OR f.estDepartureTime <= :toDate)";
+
+    // Keyset sobre (estDepartureTime, id): la página siguiente empieza después del último elemento devuelto
+    @Query(SUMMARY_SELECT + "FROM Flight f WHERE " + SEARCH_FILTER + " AND " +
+            "(:afterDeparture IS NULL OR f.estDepartureTime > :afterDeparture OR " +
+            "(f.estDepartureTime = :afterDeparture AND f.id > :afterId)) " +
+            "ORDER BY f.estDepartureTime ASC, f.id ASC")
+    List<FlightSummary> searchFlightsAscending(@Param("flightNumber") String flightNumber,
+                                               @Param("airlineName") String airlineName,
+                                               @Param("fromDate") LocalDateTime fromDate,
+                                               @Param("toDate") LocalDateTime toDate,
+                                               @Param("afterDeparture") LocalDateTime afterDeparture,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "FROM Flight f WHERE " + SEARCH_FILTER + " AND " +
+            "(:afterDeparture IS NULL OR f.estDepartureTime < :afterDeparture OR " +
+            "(f.estDepartureTime = :afterDeparture AND f.id < :afterId)) " +
+            "ORDER BY f.estDepartureTime DESC, f.id DESC")
+    List<FlightSummary> searchFlightsDescending(@Param("flightNumber") String flightNumber,
+                                                @Param("airlineName") String airlineName,
+                                                @Param("fromDate") LocalDateTime fromDate,
+                                                @Param("toDate") LocalDateTime toDate,
+                                                @Param("afterDeparture") LocalDateTime afterDeparture,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "FROM Flight f WHERE f.id IN :ids AND " + SEARCH_FILTER + " AND " +
+            "(:afterDeparture IS NULL OR f.estDepartureTime > :afterDeparture OR " +
+            "(f.estDepartureTime = :afterDeparture AND f.id > :afterId)) " +
+            "ORDER BY f.estDepartureTime ASC, f.id ASC")
+    List<FlightSummary> searchFlightsByIdsAscending(@Param("ids") Collection<Long> ids,
+                                                    @Param("flightNumber") String flightNumber,
+                                                    @Param("airlineName") String airlineName,
+                                                    @Param("fromDate") LocalDateTime fromDate,
+                                                    @Param("toDate") LocalDateTime toDate,
+                                                    @Param("afterDeparture") LocalDateTime afterDeparture,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "FROM Flight f WHERE f.id IN :ids AND " + SEARCH_FILTER + " AND " +
+            "(:afterDeparture IS NULL OR f.estDepartureTime < :afterDeparture OR " +
+            "(f.estDepartureTime = :afterDeparture AND f.id < :afterId)) " +
+            "ORDER BY f.estDepartureTime DESC, f.id DESC")
+    List<FlightSummary> searchFlightsByIdsDescending(@Param("ids") Collection<Long> ids,
+                                                     @Param("flightNumber") String flightNumber,
+                                                     @Param("airlineName") String airlineName,
+                                                     @Param("fromDate") LocalDateTime fromDate,
+                                                     @Param("toDate") LocalDateTime toDate,
+                                                     @Param("afterDeparture") LocalDateTime afterDeparture,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new org.e2e.labe2e03.repository.FlightSearchKey(f.id, f.flightNumber, f.airlineName) " +
+            "FROM Flight f")
+    Stream<FlightSearchKey> streamSearchKeys();
+
+    @Query("SELECT new org.e2e.labe2e03.repository.FlightSearchKey(f.id, f.flightNumber, f.airlineName) " +
+            "FROM Flight f WHERE f.flightNumber IN :flightNumbers")
+    List<FlightSearchKey> findSearchKeys(@Param("flightNumbers") Collection<String> flightNumbers);
+
+    // Cursor de solo lectura hacia adelante para exportar todos los resultados sin cargarlos en memoria
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "FROM Flight f WHERE " + SEARCH_FILTER + " ORDER BY f.estDepartureTime ASC, f.id ASC")
+    Stream<FlightSummary> streamFlights(@Param("flightNumber") String flightNumber,
+                                        @Param("airlineName") String airlineName,
+                                        @Param("fromDate") LocalDateTime fromDate,
+                                        @Param("toDate") LocalDateTime toDate);
 }
@@ -0,0 +1,4 @@
+package org.e2e.labe2e03.repository;
+
+public record FlightSearchKey(Long id, String flightNumber, String airlineName) {
+}
@@ -0,0 +1,7 @@
+package org.e2e.labe2e03.repository;
+
+import java.time.LocalDateTime;
+
+public record FlightSummary(Long id, String airlineName, String flightNumber,
+                            LocalDateTime estDepartureTime, LocalDateTime estArrivalTime, Integer availableSeats) {
+}
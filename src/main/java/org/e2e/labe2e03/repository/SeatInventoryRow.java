@@ -0,0 +1,8 @@
+package org.e2e.labe2e03.repository;
+
+public record SeatInventoryRow(Long flightId, Integer availableSeats, Integer remainingSeats, Long bookings) {
+
+    public int expectedRemaining() {
+        return (int) Math.max(0, availableSeats - bookings);
+    }
+}
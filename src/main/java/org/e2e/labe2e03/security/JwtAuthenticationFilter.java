@@ -1,12 +1,15 @@
 package org.e2e.labe2e03.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.e2e.labe2e03.service.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,14 +17,23 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String USER_LOOKUP_NONE = "none";
+    private static final String USER_LOOKUP_CACHED = "cached";
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
 
+    // always: findByEmail en cada request | cached: usuario con TTL | none: principal desde los claims (opt-in)
+    @Value("${security.jwt.user-lookup:always}")
+    private String userLookup;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -30,24 +42,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // Una sola verificación por request; el controller reutiliza los claims
+                claims = jwtUtil.parseClaims(jwt);
+                username = claims.getSubject();
+                request.setAttribute(JwtUtil.CLAIMS_ATTRIBUTE, claims);
             } catch (Exception e) {
                 logger.error("Error extracting username from JWT", e);
             }
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            Object principal;
+            Collection<? extends GrantedAuthority> authorities;
+            String expectedUsername;
+
+            if (USER_LOOKUP_NONE.equalsIgnoreCase(userLookup)) {
+                // El token ya está firmado: el principal sale de los claims sin ir a la base de datos
+                principal = new JwtPrincipal(username, claims.get("userId", Long.class));
+                authorities = List.of();
+                expectedUsername = username;
+            } else {
+                UserDetails userDetails = USER_LOOKUP_CACHED.equalsIgnoreCase(userLookup)
+                        ? this.userDetailsService.loadCachedUserByUsername(username)
+                        : this.userDetailsService.loadUserByUsername(username);
+                principal = userDetails;
+                authorities = userDetails.getAuthorities();
+                expectedUsername = userDetails.getUsername();
+            }
 
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            if (jwtUtil.validateClaims(claims, expectedUsername)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                                principal, null, authorities);
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -0,0 +1,12 @@
+package org.e2e.labe2e03.security;
+
+/**
+ * Principal construido solo a partir de los claims verificados del JWT, sin consultar la tabla de usuarios.
+ */
+public record JwtPrincipal(String username, Long userId) {
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
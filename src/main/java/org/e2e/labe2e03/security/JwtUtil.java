@@ -1,28 +1,80 @@
 package org.e2e.labe2e03.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    // Atributo del request donde JwtAuthenticationFilter deja los claims ya verificados
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".claims";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // 0 desactiva la cache de claims verificados
+    @Value("${jwt.claims-cache.max-entries:0}")
+    private int claimsCacheMaxEntries;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Map<String, Claims> verifiedClaims;
+    private Timer verifiedTimer;
+    private Timer cachedTimer;
+    private Timer invalidTimer;
+    private Timer signTimer;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTimer = parseTimer("verified");
+        cachedTimer = parseTimer("cached");
+        invalidTimer = parseTimer("invalid");
+        signTimer = Timer.builder("flyaway.jwt.sign")
+                .description("Generación y firma de tokens")
+                .register(meterRegistry);
+        verifiedClaims = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > claimsCacheMaxEntries;
+            }
+        };
+    }
+
+    private Timer parseTimer(String result) {
+        return Timer.builder("flyaway.jwt.parse")
+                .description("Parseo y verificación de tokens")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     public String extractUsername(String token) {
@@ -38,26 +90,62 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifica la firma y devuelve los claims. Si la cache está activa, un token ya verificado se resuelve
+     * por el digest SHA-256 del token hasta que expire.
+     */
+    public Claims parseClaims(String token) {
+        long started = System.nanoTime();
+        if (claimsCacheMaxEntries <= 0) {
+            return verify(token, started);
+        }
+
+        String digest = digest(token);
+        Claims claims;
+        synchronized (verifiedClaims) {
+            claims = verifiedClaims.get(digest);
+        }
+        if (claims != null && claims.getExpiration().after(new Date())) {
+            cachedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return claims;
+        }
+
+        // Un token expirado no se cachea: el parser lanza ExpiredJwtException
+        claims = verify(token, started);
+        synchronized (verifiedClaims) {
+            verifiedClaims.put(digest, claims);
+        }
+        return claims;
+    }
+
+    private Claims verify(String token, long started) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            invalidTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public String generateToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
-        return createToken(claims, username);
+        return signTimer.record(() -> createToken(claims, username));
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
@@ -66,12 +154,15 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return validateClaims(parseClaims(token), username);
+    }
+
+    public Boolean validateClaims(Claims claims, String username) {
+        return (claims.getSubject().equals(username) && !claims.getExpiration().before(new Date()));
     }
 }
@@ -1,19 +1,34 @@
 package org.e2e.labe2e03.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.e2e.labe2e03.dto.request.FlightBookManyRequestDTO;
 import org.e2e.labe2e03.dto.request.FlightBookRequestDTO;
 import org.e2e.labe2e03.dto.response.BookingResponseDTO;
 import org.e2e.labe2e03.entity.Booking;
+import org.e2e.labe2e03.entity.EmailOutbox;
 import org.e2e.labe2e03.entity.Flight;
 import org.e2e.labe2e03.entity.User;
+import org.e2e.labe2e03.exception.BookingRejectedException;
 import org.e2e.labe2e03.repository.BookingRepository;
+import org.e2e.labe2e03.repository.BookingSummary;
+import org.e2e.labe2e03.repository.EmailOutboxRepository;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,12 +37,37 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final FlightService flightService;
     private final UserService userService;
-    private final EmailService emailService;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final CustomerItineraryService customerItineraryService;
+    private final ConfirmationArchive confirmationArchive;
+    private final MeterRegistry meterRegistry;
 
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+    private final Map<String, Timer> bookingTimers = new ConcurrentHashMap<>();
 
     @Transactional
     public Long bookFlight(FlightBookRequestDTO dto, Long userId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Long bookingId = book(dto, userId);
+            outcome = "success";
+            return bookingId;
+        } catch (BookingRejectedException e) {
+            outcome = e.getOutcome();
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } finally {
+            sample.stop(bookingTimers.computeIfAbsent(outcome, tag -> Timer.builder("flyaway.booking")
+                    .description("BookingService.bookFlight por resultado")
+                    .tag("outcome", tag)
+                    .register(meterRegistry)));
+        }
+    }
+
+    private Long book(FlightBookRequestDTO dto, Long userId) {
         if (dto.getFlightId() == null) {
             throw new IllegalArgumentException("Flight ID is mandatory");
         }
@@ -37,31 +77,90 @@ public class BookingService {
 
         User user = userService.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        customerItineraryService.lockCustomer(user.getId());
+
+        Booking savedBooking = bookingRepository.save(admit(flight, user));
+
+        // Nice-to-Have: Enviar email de confirmación (outbox en la misma transacción, se envía en segundo plano)
+        emailOutboxRepository.save(EmailOutbox.pendingFor(savedBooking.getId()));
+
+        return savedBooking.getId();
+    }
+
+    @Transactional
+    public List<Long> bookFlights(FlightBookManyRequestDTO dto, Long userId) {
+        List<Long> flightIds = dto.getFlightIds();
+        if (flightIds == null || flightIds.isEmpty()) {
+            throw new IllegalArgumentException("Flight IDs are mandatory");
+        }
+        if (flightIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Flight ID is mandatory");
+        }
+        if (new HashSet<>(flightIds).size() != flightIds.size()) {
+            throw new IllegalArgumentException("Flight IDs cannot be repeated");
+        }
+
+        Map<Long, Flight> flightsById = flightService.findAllById(flightIds).stream()
+                .collect(Collectors.toMap(Flight::getId, Function.identity()));
+        List<Flight> legs = new ArrayList<>(flightIds.size());
+        for (Long flightId : flightIds) {
+            Flight flight = flightsById.get(flightId);
+            if (flight == null) {
+                throw new IllegalArgumentException("Flight not found");
+            }
+            legs.add(flight);
+        }
 
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        // Los tramos del itinerario tampoco pueden solaparse entre sí
+        List<Flight> byDeparture = new ArrayList<>(legs);
+        byDeparture.sort(Comparator.comparing(Flight::getEstDepartureTime));
+        for (int i = 1; i < byDeparture.size(); i++) {
+            if (!byDeparture.get(i).getEstDepartureTime().isAfter(byDeparture.get(i - 1).getEstArrivalTime())) {
+                throw new BookingRejectedException("overlap", "Customer cannot book a flight that overlaps with another");
+            }
+        }
+
+        // Cliente primero y luego los vuelos por id: dos itinerarios con los mismos tramos no se bloquean mutuamente
+        customerItineraryService.lockCustomer(user.getId());
+        List<Flight> byId = new ArrayList<>(legs);
+        byId.sort(Comparator.comparing(Flight::getId));
+        Map<Long, Booking> admitted = new HashMap<>();
+        for (Flight flight : byId) {
+            admitted.put(flight.getId(), admit(flight, user));
+        }
+        List<Booking> bookings = legs.stream().map(flight -> admitted.get(flight.getId())).toList();
+
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        emailOutboxRepository.saveAll(savedBookings.stream()
+                .map(booking -> EmailOutbox.pendingFor(booking.getId()))
+                .toList());
+
+        return savedBookings.stream().map(Booking::getId).toList();
+    }
+
+    // Aplica todas las validaciones del booking y reserva asiento e intervalo del cliente
+    private Booking admit(Flight flight, User user) {
         // Must-Have: Validar que no esté oversold
-        long currentBookings = bookingRepository.findByFlightId(flight.getId()).size();
-        if (currentBookings >= flight.getAvailableSeats()) {
-            throw new IllegalArgumentException("Flight cannot be oversold");
+        // La reserva del asiento es atómica; si falla la transacción se revierte
+        if (!seatInventoryService.reserveSeat(flight)) {
+            throw new BookingRejectedException("oversold", "Flight cannot be oversold");
         }
 
         // Nice-to-Have: Validar que el vuelo no esté en el pasado o en tránsito
         LocalDateTime now = LocalDateTime.now();
         if (flight.getEstDepartureTime().isBefore(now)) {
-            throw new IllegalArgumentException("Flight cannot be in the past");
+            throw new BookingRejectedException("past", "Flight cannot be in the past");
         }
         if (flight.getEstArrivalTime().isBefore(now) && flight.getEstDepartureTime().isAfter(now)) {
-            throw new IllegalArgumentException("Flight cannot be in transit");
+            throw new BookingRejectedException("in_transit", "Flight cannot be in transit");
         }
 
         // Nice-to-Have: Validar que no haya overlap
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                userId,
-                flight.getEstDepartureTime(),
-                flight.getEstArrivalTime()
-        );
-
-        if (!overlappingBookings.isEmpty()) {
-            throw new IllegalArgumentException("Customer cannot book a flight that overlaps with another");
+        if (!customerItineraryService.reserveSlot(user.getId(), flight.getEstDepartureTime(), flight.getEstArrivalTime())) {
+            throw new BookingRejectedException("overlap", "Customer cannot book a flight that overlaps with another");
         }
 
         Booking booking = new Booking();
@@ -70,41 +169,37 @@ public class BookingService {
         booking.setCustomer(user);
         booking.setCustomerFirstName(user.getFirstName());
         booking.setCustomerLastName(user.getLastName());
-
-        Booking savedBooking = bookingRepository.save(booking);
-
-        // Nice-to-Have: Enviar email de confirmación
-        try {
-            emailService.sendBookingConfirmation(savedBooking);
-        } catch (Exception e) {
-            System.err.println("Error sending email: " + e.getMessage());
-        }
-
-        return savedBooking.getId();
+        return booking;
     }
 
+    @Transactional(readOnly = true)
     public Optional<BookingResponseDTO> findById(Long id) {
-        return bookingRepository.findById(id).map(this::convertToDTO);
+        return bookingRepository.findSummaryById(id).map(this::convertToDTO);
     }
 
-    private BookingResponseDTO convertToDTO(Booking booking) {
+    // Package-private para los benchmarks JMH (src/jmh/java)
+    BookingResponseDTO convertToDTO(BookingSummary booking) {
         BookingResponseDTO dto = new BookingResponseDTO();
-        dto.setId(String.valueOf(booking.getId()));
+        dto.setId(String.valueOf(booking.id()));
 
         // Truncar a segundos para evitar nanosegundos en el formato
-        LocalDateTime truncated = booking.getBookingDate().withNano(0);
-        dto.setBookingDate(truncated.format(ISO_FORMATTER));
-
-        dto.setFlightId(String.valueOf(booking.getFlight().getId()));
-        dto.setFlightNumber(booking.getFlight().getFlightNumber());
-        dto.setCustomerId(String.valueOf(booking.getCustomer().getId()));
-        dto.setCustomerFirstName(booking.getCustomerFirstName());
-        dto.setCustomerLastName(booking.getCustomerLastName());
+        LocalDateTime truncated = booking.bookingDate().withNano(0);
+        dto.setBookingDate(truncated);
+
+        dto.setFlightId(String.valueOf(booking.flightId()));
+        dto.setFlightNumber(booking.flightNumber());
+        dto.setCustomerId(String.valueOf(booking.customerId()));
+        dto.setCustomerFirstName(booking.customerFirstName());
+        dto.setCustomerLastName(booking.customerLastName());
         return dto;
     }
 
     @Transactional
     public void deleteAll() {
+        emailOutboxRepository.deleteAllInBatch();
         bookingRepository.deleteAll();
+        seatInventoryService.reset();
+        customerItineraryService.clear();
+        confirmationArchive.clear();
     }
 }
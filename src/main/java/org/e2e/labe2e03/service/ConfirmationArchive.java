@@ -0,0 +1,326 @@
+package org.e2e.labe2e03.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Archivo de confirmaciones en segmentos append-only ({@code email.archive.mode=segments}).
+ * <p>
+ * Cada registro es {@code [bookingId:long][length:int][cuerpo UTF-8]} y se añade al segmento activo; al superar
+ * {@code segment-max-bytes} se rota. El índice booking id → (segmento, offset) vive en memoria y se reconstruye
+ * recorriendo los segmentos al arrancar, truncando un registro final incompleto. El fsync es por grupos
+ * ({@link #sync()}, al final de cada lote). Al rotar se compactan los segmentos sellados cuyo contenido vivo
+ * baja de {@code compaction-threshold}.
+ * <p>
+ * Vivo es solo el último registro de cada booking: el outbox entrega al menos una vez, así que una confirmación
+ * puede archivarse varias veces y las copias anteriores quedan como basura. Tras borrar los bookings
+ * ({@link #clear()}) no queda nada vivo y los segmentos sellados se borran.
+ */
+@Service
+@Slf4j
+public class ConfirmationArchive {
+
+    private static final String SEGMENTS_MODE = "segments";
+    private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "confirmations-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    record Location(long segment, long offset, int length) {
+
+        long recordBytes() {
+            return HEADER_BYTES + length;
+        }
+    }
+
+    @Value("${email.archive.mode:files}")
+    private String mode;
+
+    @Value("${email.archive.directory:email-archive}")
+    private Path directory;
+
+    @Value("${email.archive.segment-max-bytes:67108864}")
+    private long segmentMaxBytes;
+
+    @Value("${email.archive.compaction-threshold:0.5}")
+    private double compactionThreshold;
+
+    private final Map<Long, Location> index = new ConcurrentHashMap<>();
+    // Lock explícito en vez de synchronized: con hilos virtuales, bloquear en I/O dentro de un monitor fija el carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    // Protegidos por lock
+    private final TreeMap<Long, Long> segmentSizes = new TreeMap<>();
+    private final Map<Long, Long> liveBytes = new HashMap<>();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    private FileChannel active;
+    private long activeSegment;
+    private boolean dirty;
+    private boolean compacting;
+
+    public boolean isEnabled() {
+        return SEGMENTS_MODE.equalsIgnoreCase(mode);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        lock.lock();
+        try {
+            if (!isEnabled()) {
+                return;
+            }
+            Files.createDirectories(directory);
+            List<Long> segments = listSegments();
+            for (long segment : segments) {
+                scan(segment);
+            }
+            activeSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+            openActive();
+            log.info("Confirmation archive opened: {} segments, {} bookings indexed", segmentSizes.size(), index.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Añade un mensaje al segmento activo. No hace fsync: el llamador agrupa con {@link #sync()}.
+     */
+    public void append(long bookingId, CharSequence content) {
+        ByteBuffer body = StandardCharsets.UTF_8.encode(CharBuffer.wrap(content));
+        lock.lock();
+        try {
+            write(bookingId, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append confirmation " + bookingId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void sync() {
+        lock.lock();
+        try {
+            if (!dirty) {
+                return;
+            }
+            try {
+                active.force(false);
+                dirty = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync confirmation archive", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<String> find(long bookingId) {
+        lock.lock();
+        try {
+            Location location = index.get(bookingId);
+            if (location == null) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(StandardCharsets.UTF_8.decode(readBody(location)).toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read confirmation " + bookingId, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Se llama tras borrar todos los bookings: se olvidan sus confirmaciones y se compacta enseguida.
+     */
+    public void clear() {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            index.clear();
+            liveBytes.clear();
+            compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact confirmation archive", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (active != null) {
+                active.force(false);
+                active.close();
+                active = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(long bookingId, ByteBuffer body) throws IOException {
+        int length = body.remaining();
+        long offset = segmentSizes.get(activeSegment);
+        if (offset > 0 && offset + HEADER_BYTES + length > segmentMaxBytes) {
+            rotate();
+            offset = 0;
+        }
+        header.clear();
+        header.putLong(bookingId).putInt(length).flip();
+        ByteBuffer[] record = {header, body};
+        while (header.hasRemaining() || body.hasRemaining()) {
+            active.write(record);
+        }
+        segmentSizes.put(activeSegment, offset + HEADER_BYTES + length);
+        track(bookingId, new Location(activeSegment, offset, length));
+        dirty = true;
+    }
+
+    private void rotate() throws IOException {
+        active.force(false);
+        active.close();
+        dirty = false;
+        activeSegment++;
+        openActive();
+        if (!compacting) {
+            compact();
+        }
+    }
+
+    private void compact() throws IOException {
+        compacting = true;
+        try {
+            for (long segment : new ArrayList<>(segmentSizes.headMap(activeSegment, false).keySet())) {
+                long size = segmentSizes.get(segment);
+                long live = liveBytes.getOrDefault(segment, 0L);
+                if (live >= size * compactionThreshold) {
+                    continue;
+                }
+                List<Map.Entry<Long, Location>> survivors = index.entrySet().stream()
+                        .filter(entry -> entry.getValue().segment() == segment)
+                        .toList();
+                for (Map.Entry<Long, Location> entry : survivors) {
+                    write(entry.getKey(), readBody(entry.getValue()));
+                }
+                // Las copias tienen que ser durables antes de borrar el original
+                active.force(false);
+                dirty = false;
+                Files.deleteIfExists(segmentPath(segment));
+                segmentSizes.remove(segment);
+                liveBytes.remove(segment);
+                log.info("Compacted confirmation segment {}: {} of {} bytes were live", segment, live, size);
+            }
+        } finally {
+            compacting = false;
+        }
+    }
+
+    private void scan(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = 0;
+            ByteBuffer scanHeader = ByteBuffer.allocate(HEADER_BYTES);
+            while (position + HEADER_BYTES <= size) {
+                scanHeader.clear();
+                readFully(channel, scanHeader, position);
+                scanHeader.flip();
+                long bookingId = scanHeader.getLong();
+                int length = scanHeader.getInt();
+                if (length < 0 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+                track(bookingId, new Location(segment, position, length));
+                position += HEADER_BYTES + length;
+            }
+            if (position < size) {
+                log.warn("Truncating torn record at {} in confirmation segment {}", position, segment);
+                channel.truncate(position);
+            }
+            segmentSizes.put(segment, position);
+        }
+    }
+
+    private void track(long bookingId, Location location) {
+        Location previous = index.put(bookingId, location);
+        if (previous != null) {
+            liveBytes.merge(previous.segment(), -previous.recordBytes(), Long::sum);
+        }
+        liveBytes.merge(location.segment(), location.recordBytes(), Long::sum);
+    }
+
+    private ByteBuffer readBody(Location location) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(location.length());
+        if (location.segment() == activeSegment) {
+            readFully(active, body, location.offset() + HEADER_BYTES);
+        } else {
+            try (FileChannel channel = FileChannel.open(segmentPath(location.segment()), StandardOpenOption.READ)) {
+                readFully(channel, body, location.offset() + HEADER_BYTES);
+            }
+        }
+        return body.flip();
+    }
+
+    private void openActive() throws IOException {
+        active = FileChannel.open(segmentPath(activeSegment), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.READ);
+        long size = segmentSizes.getOrDefault(activeSegment, 0L);
+        active.position(size);
+        segmentSizes.put(activeSegment, size);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of confirmation segment");
+            }
+            position += read;
+        }
+    }
+}
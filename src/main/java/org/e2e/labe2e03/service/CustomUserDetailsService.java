@@ -1,6 +1,7 @@
 package org.e2e.labe2e03.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -9,6 +10,7 @@ import org.e2e.labe2e03.entity.User;
 import org.e2e.labe2e03.repository.UserRepository;
 
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -16,6 +18,17 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    @Value("${security.jwt.user-cache-ttl-seconds:60}")
+    private long userCacheTtlSeconds;
+
+    @Value("${security.jwt.user-cache-max-entries:10000}")
+    private int userCacheMaxEntries;
+
+    private final ConcurrentHashMap<String, CachedUser> userCache = new ConcurrentHashMap<>();
+
+    private record CachedUser(UserDetails userDetails, long expiresAt) {
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(username)
@@ -27,4 +40,26 @@ public class CustomUserDetailsService implements UserDetailsService {
                 new ArrayList<>()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Igual que {@link #loadUserByUsername} pero reutiliza el resultado durante
+     * {@code security.jwt.user-cache-ttl-seconds}: un usuario borrado deja de autenticarse como mucho tras ese TTL.
+     */
+    public UserDetails loadCachedUserByUsername(String username) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        CachedUser cached = userCache.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.userDetails();
+        }
+
+        UserDetails userDetails = loadUserByUsername(username);
+        if (userCache.size() >= userCacheMaxEntries) {
+            userCache.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (userCache.size() >= userCacheMaxEntries) {
+                userCache.clear();
+            }
+        }
+        userCache.put(username, new CachedUser(userDetails, now + userCacheTtlSeconds * 1000));
+        return userDetails;
+    }
+}
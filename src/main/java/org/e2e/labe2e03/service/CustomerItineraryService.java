@@ -0,0 +1,214 @@
+package org.e2e.labe2e03.service;
+
+import lombok.RequiredArgsConstructor;
+import org.e2e.labe2e03.repository.BookedInterval;
+import org.e2e.labe2e03.repository.BookingRepository;
+import org.e2e.labe2e03.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice por cliente de los intervalos [salida, llegada] ya reservados.
+ * <p>
+ * Los intervalos de un cliente nunca se solapan entre sí (es justamente lo que se valida), así que
+ * ordenados por salida también quedan ordenados por llegada: el único candidato a solaparse con un vuelo
+ * nuevo es el último intervalo que sale antes de su llegada. La consulta es un floorEntry O(log n).
+ * Cada cliente se carga de la base de datos la primera vez que reserva; solo es válido con un único nodo.
+ * Los clientes sin reservas en curso y sin actividad en {@code booking.overlap-index.idle-ttl-seconds} se
+ * descartan (y, por encima de {@code max-customers}, los menos recientes) y se vuelven a cargar al reservar.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerItineraryService {
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+
+    @Value("${booking.overlap-index.enabled:true}")
+    private boolean indexEnabled;
+
+    @Value("${booking.overlap-index.idle-ttl-seconds:600}")
+    private long idleTtlSeconds;
+
+    @Value("${booking.overlap-index.max-customers:100000}")
+    private int maxCustomers;
+
+    private final ConcurrentHashMap<Long, Itinerary> itineraries = new ConcurrentHashMap<>();
+
+    // Todos los campos se leen y escriben con el monitor del itinerario tomado
+    private static final class Itinerary {
+        private final TreeMap<LocalDateTime, LocalDateTime> slots;
+        // Intervalos todavía sin commit: la BD no los ve, así que un itinerario con pendientes no se descarta
+        private int pending;
+        private long lastUsed = System.currentTimeMillis();
+        private boolean evicted;
+
+        Itinerary(TreeMap<LocalDateTime, LocalDateTime> slots) {
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * Serializa las reservas del cliente cuando el solapamiento se valida contra la BD: sin el lock, dos
+     * bookings concurrentes del mismo cliente pasan ambos el check antes de insertar. Debe tomarse una vez
+     * por transacción y antes de reservar asientos, para que el orden de locks sea siempre cliente → vuelos.
+     */
+    public void lockCustomer(Long customerId) {
+        if (!indexEnabled) {
+            userRepository.lockById(customerId);
+        }
+    }
+
+    /**
+     * Registra el intervalo del vuelo para el cliente si no se solapa con otro ya reservado.
+     * Debe llamarse dentro de la transacción del booking, después de {@link #lockCustomer}:
+     * si no hay commit, el intervalo se retira.
+     */
+    public boolean reserveSlot(Long customerId, LocalDateTime departure, LocalDateTime arrival) {
+        if (!indexEnabled) {
+            return !bookingRepository.existsOverlappingBooking(customerId, departure, arrival);
+        }
+
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        while (true) {
+            Itinerary itinerary = itineraryOf(customerId);
+            synchronized (itinerary) {
+                // Descartado entre el get y el lock: sus cambios ya no serían visibles, se usa uno nuevo
+                if (itinerary.evicted) {
+                    continue;
+                }
+                itinerary.lastUsed = System.currentTimeMillis();
+                pruneFinished(itinerary.slots, LocalDateTime.now());
+
+                Map.Entry<LocalDateTime, LocalDateTime> candidate = itinerary.slots.floorEntry(arrival);
+                if (candidate != null && !candidate.getValue().isBefore(departure)) {
+                    return false;
+                }
+                itinerary.slots.put(departure, arrival);
+                if (inTransaction) {
+                    itinerary.pending++;
+                }
+            }
+
+            if (inTransaction) {
+                completeOnFinish(itinerary, departure);
+            }
+            return true;
+        }
+    }
+
+    private Itinerary itineraryOf(Long customerId) {
+        Itinerary itinerary = itineraries.get(customerId);
+        if (itinerary != null) {
+            return itinerary;
+        }
+
+        // Se carga fuera del lock del mapa; si otro hilo se adelanta se usa su instancia
+        TreeMap<LocalDateTime, LocalDateTime> loaded = new TreeMap<>();
+        for (BookedInterval interval : bookingRepository.findBookedIntervals(customerId)) {
+            loaded.merge(interval.departure(), interval.arrival(),
+                    (a, b) -> a.isAfter(b) ? a : b);
+        }
+        Itinerary created = new Itinerary(loaded);
+        Itinerary existing = itineraries.putIfAbsent(customerId, created);
+        return existing != null ? existing : created;
+    }
+
+    // Un vuelo ya aterrizado no puede solaparse con uno reservable (que sale en el futuro)
+    private void pruneFinished(TreeMap<LocalDateTime, LocalDateTime> itinerary, LocalDateTime now) {
+        Iterator<LocalDateTime> arrivals = itinerary.values().iterator();
+        while (arrivals.hasNext() && arrivals.next().isBefore(now)) {
+            arrivals.remove();
+        }
+    }
+
+    // Sin commit el intervalo se retira; en ambos casos deja de estar pendiente
+    private void completeOnFinish(Itinerary itinerary, LocalDateTime departure) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (itinerary) {
+                    if (status != STATUS_COMMITTED) {
+                        itinerary.slots.remove(departure);
+                    }
+                    itinerary.pending--;
+                    itinerary.lastUsed = System.currentTimeMillis();
+                }
+            }
+        });
+    }
+
+    /**
+     * Descarta los clientes inactivos y, si siguen siendo más de {@code max-customers}, los menos recientes.
+     * Un cliente con reservas sin commit nunca se descarta.
+     */
+    @Scheduled(fixedDelayString = "${booking.overlap-index.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        if (!indexEnabled || itineraries.isEmpty()) {
+            return;
+        }
+        long idleSince = System.currentTimeMillis() - idleTtlSeconds * 1000;
+        List<Map.Entry<Long, Long>> idle = new ArrayList<>();
+        for (Map.Entry<Long, Itinerary> entry : itineraries.entrySet()) {
+            Itinerary itinerary = entry.getValue();
+            synchronized (itinerary) {
+                if (itinerary.pending > 0) {
+                    continue;
+                }
+                if (itinerary.lastUsed < idleSince) {
+                    evict(entry.getKey(), itinerary);
+                } else {
+                    idle.add(Map.entry(entry.getKey(), itinerary.lastUsed));
+                }
+            }
+        }
+
+        int excess = itineraries.size() - maxCustomers;
+        if (excess <= 0) {
+            return;
+        }
+        idle.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Long> candidate : idle) {
+            if (excess <= 0) {
+                break;
+            }
+            Itinerary itinerary = itineraries.get(candidate.getKey());
+            if (itinerary == null) {
+                continue;
+            }
+            synchronized (itinerary) {
+                if (itinerary.pending == 0 && itinerary.lastUsed == candidate.getValue()) {
+                    evict(candidate.getKey(), itinerary);
+                    excess--;
+                }
+            }
+        }
+    }
+
+    // Con el monitor del itinerario tomado
+    private void evict(Long customerId, Itinerary itinerary) {
+        itinerary.evicted = true;
+        itineraries.remove(customerId, itinerary);
+    }
+
+    public void clear() {
+        for (Iterator<Map.Entry<Long, Itinerary>> it = itineraries.entrySet().iterator(); it.hasNext(); ) {
+            Itinerary itinerary = it.next().getValue();
+            synchronized (itinerary) {
+                itinerary.evicted = true;
+            }
+            it.remove();
+        }
+    }
+}
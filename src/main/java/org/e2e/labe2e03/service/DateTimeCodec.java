@@ -0,0 +1,150 @@
+package org.e2e.labe2e03.service;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Parseo y formato de fechas compartido por servicios, emails y JSON.
+ * <p>
+ * El formato de entrada se detecta por la forma del texto en lugar de probar parsers y capturar la excepción:
+ * {@code yyyy-MM-ddTHH:mm[:ss[.f…]]} se parsea a mano, otros ISO (con offset o zona) con {@code ISO_DATE_TIME}
+ * y lo que empieza con letra con el formato del tester ({@code EEE MMM dd HH:mm:ss zzz yyyy}); los formatters
+ * son constantes. La salida es la misma que {@code ISO_DATE_TIME}: segundos siempre, fracción sin ceros finales.
+ */
+public final class DateTimeCodec {
+
+    // Longitud de "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn", la forma más larga que cubre el camino rápido
+    public static final int MAX_FORMATTED_LENGTH = 29;
+
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+    private static final DateTimeFormatter TESTER_FORMATTER =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.ENGLISH);
+
+    private static final int[] NANO_SCALE = {
+            100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private DateTimeCodec() {
+    }
+
+    /**
+     * @throws IllegalArgumentException {@code "Invalid date format: <texto>"} si no es un formato aceptado
+     */
+    public static LocalDateTime parse(String text) {
+        LocalDateTime local = parseLocalIso(text);
+        if (local != null) {
+            return local;
+        }
+        try {
+            if (!text.isEmpty() && Character.isLetter(text.charAt(0))) {
+                return ZonedDateTime.parse(text, TESTER_FORMATTER).toLocalDateTime();
+            }
+            return LocalDateTime.parse(text, ISO_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format: " + text);
+        }
+    }
+
+    public static String format(LocalDateTime value) {
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            return value.format(ISO_FORMATTER);
+        }
+        char[] buffer = new char[MAX_FORMATTED_LENGTH];
+        return new String(buffer, 0, formatTo(value, buffer));
+    }
+
+    /**
+     * Escribe {@code value} en {@code buffer} (al menos {@link #MAX_FORMATTED_LENGTH} chars) y devuelve la longitud.
+     * Solo para años 0-9999; fuera de ese rango usar {@link #format(LocalDateTime)}.
+     */
+    public static int formatTo(LocalDateTime value, char[] buffer) {
+        writeDigits(buffer, 0, value.getYear(), 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, value.getSecond(), 2);
+
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        buffer[19] = '.';
+        int length = 20;
+        for (int i = 0; i < NANO_SCALE.length && nano > 0; i++) {
+            int digit = nano / NANO_SCALE[i];
+            buffer[length++] = (char) ('0' + digit);
+            nano -= digit * NANO_SCALE[i];
+        }
+        return length;
+    }
+
+    // Camino rápido sin excepciones; null si el texto no tiene exactamente esa forma o no es una fecha válida
+    private static LocalDateTime parseLocalIso(String text) {
+        int length = text.length();
+        if (length < 16 || length > MAX_FORMATTED_LENGTH || length == 17 || length == 18 || length == 20
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':') {
+            return null;
+        }
+        int year = readDigits(text, 0, 4);
+        int month = readDigits(text, 5, 2);
+        int day = readDigits(text, 8, 2);
+        int hour = readDigits(text, 11, 2);
+        int minute = readDigits(text, 14, 2);
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (text.charAt(16) != ':') {
+                return null;
+            }
+            second = readDigits(text, 17, 2);
+        }
+        if (length > 19) {
+            if (text.charAt(19) != '.') {
+                return null;
+            }
+            for (int i = 20; i < length; i++) {
+                int digit = readDigits(text, i, 1);
+                if (digit < 0) {
+                    return null;
+                }
+                nano += digit * NANO_SCALE[i - 20];
+            }
+        }
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    private static int readDigits(String text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.e2e.labe2e03.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.e2e.labe2e03.entity.Booking;
+import org.e2e.labe2e03.entity.EmailOutbox;
+import org.e2e.labe2e03.repository.BookingRepository;
+import org.e2e.labe2e03.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Envía las confirmaciones registradas en {@code email_outbox} por los bookings.
+ * <p>
+ * El registro se escribe en la misma transacción que el booking, así que una confirmación no se pierde si el
+ * proceso cae; un mensaje entregado cuyo borrado no llegó a confirmarse se vuelve a enviar (al menos una vez).
+ * Los fallos se reintentan con espera creciente hasta {@code email.outbox.max-attempts}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final BookingRepository bookingRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${email.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${email.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+
+    // El scheduler de Boot tiene un solo hilo: drenar un backlog grande de una vez demoraría el flush de
+    // asientos y las demás tareas, así que cada pasada envía como mucho max-batches-per-run lotes
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        List<EmailOutbox> batch;
+        int batches = 0;
+        do {
+            batch = emailOutboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                    EmailOutbox.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } while (batch.size() == batchSize && ++batches < maxBatchesPerRun);
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        Map<Long, Booking> bookings = bookingRepository.findWithFlightByIdIn(
+                        batch.stream().map(EmailOutbox::getBookingId).toList())
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<Booking> toSend = batch.stream()
+                .map(message -> bookings.get(message.getBookingId()))
+                .filter(Objects::nonNull)
+                .toList();
+        // Todo el lote se renderiza contra la misma plantilla compilada
+        Map<Long, RuntimeException> failures = emailService.sendBookingConfirmations(toSend);
+
+        List<Long> done = new ArrayList<>();
+        List<EmailOutbox> retries = new ArrayList<>();
+        for (EmailOutbox message : batch) {
+            // Si el booking ya no existe (p. ej. /cleanup) no hay nada que confirmar
+            RuntimeException failure = failures.get(message.getBookingId());
+            if (failure == null) {
+                done.add(message.getId());
+            } else {
+                scheduleRetry(message, failure);
+                retries.add(message);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            emailOutboxRepository.deleteAllByIdInBatch(done);
+            emailOutboxRepository.saveAll(retries);
+        });
+    }
+
+    private void scheduleRetry(EmailOutbox message, Exception e) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        String error = String.valueOf(e.getMessage());
+        message.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= maxAttempts) {
+            message.setStatus(EmailOutbox.Status.FAILED);
+            log.error("Giving up booking confirmation {} after {} attempts: {}",
+                    message.getBookingId(), attempts, error);
+        } else {
+            message.setNextAttemptAt(LocalDateTime.now().plusSeconds(retryBackoffSeconds * attempts));
+            log.warn("Booking confirmation {} failed (attempt {}): {}", message.getBookingId(), attempts, error);
+        }
+    }
+}
@@ -1,44 +1,149 @@
 package org.e2e.labe2e03.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.e2e.labe2e03.entity.Booking;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
 
 import java.io.FileWriter;
 import java.io.IOException;
-import java.time.format.DateTimeFormatter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
-
-    public void sendBookingConfirmation(Booking booking) {
-        String filename = "flight_booking_email_" + booking.getId() + ".txt";
-
-        StringBuilder emailContent = new StringBuilder();
-        emailContent.append("Hello ").append(booking.getCustomerFirstName())
-                .append(" ").append(booking.getCustomerLastName()).append(",\n\n");
-        emailContent.append("Your booking was successful!\n\n");
-        emailContent.append("The booking is for flight ").append(booking.getFlight().getFlightNumber())
-                .append(" with departure date of ")
-                .append(booking.getFlight().getEstDepartureTime().format(ISO_FORMATTER))
-                .append(" and arrival date ")
-                .append(booking.getFlight().getEstArrivalTime().format(ISO_FORMATTER))
-                .append("\n\n");
-        emailContent.append("The booking was registered at ")
-                .append(booking.getBookingDate().format(ISO_FORMATTER))
-                .append(".\n\n");
-        emailContent.append("Bon Voyage!\n");
-        emailContent.append("Fly Away Travel");
+    static final String CONFIRMATION_TEMPLATE = "email/booking-confirmation";
+
+    private final ITemplateEngine templateEngine;
+    private final ConfirmationArchive confirmationArchive;
+    private final MeterRegistry meterRegistry;
+
+    private Timer renderTimer;
+    private Timer writeTimer;
+    private Timer syncTimer;
+    private Counter sentCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        renderTimer = stageTimer("render");
+        writeTimer = stageTimer("write");
+        syncTimer = stageTimer("sync");
+        sentCounter = Counter.builder("flyaway.email.messages").tag("result", "sent").register(meterRegistry);
+        failedCounter = Counter.builder("flyaway.email.messages").tag("result", "failed").register(meterRegistry);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("flyaway.email.stage")
+                .description("Etapas del envío de confirmaciones")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    // Fuerza el parseo de la plantilla al arrancar para que el primer envío ya use la versión cacheada
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        templateEngine.process(CONFIRMATION_TEMPLATE, new Context());
+    }
+
+    /**
+     * Renderiza y envía las confirmaciones de varios bookings con la misma plantilla compilada,
+     * reutilizando el contexto y el buffer entre mensajes.
+     *
+     * @return los errores por id de booking; vacío si todos se enviaron
+     */
+    public Map<Long, RuntimeException> sendBookingConfirmations(List<Booking> bookings) {
+        Map<Long, RuntimeException> failures = new LinkedHashMap<>();
+        Context context = new Context();
+        StringWriter buffer = new StringWriter(512);
+
+        List<Long> appended = new ArrayList<>();
+
+        for (Booking booking : bookings) {
+            buffer.getBuffer().setLength(0);
+            try {
+                renderTimer.record(() -> render(booking, context, buffer));
+                if (confirmationArchive.isEnabled()) {
+                    writeTimer.record(() -> confirmationArchive.append(booking.getId(), buffer.getBuffer()));
+                    appended.add(booking.getId());
+                } else {
+                    writeTimer.record(() -> write(booking, buffer));
+                }
+            } catch (RuntimeException e) {
+                failures.put(booking.getId(), e);
+            }
+        }
+
+        if (!appended.isEmpty()) {
+            // Un único fsync por lote; si falla, ninguno de los mensajes del lote cuenta como enviado
+            try {
+                syncTimer.record(confirmationArchive::sync);
+            } catch (RuntimeException e) {
+                appended.forEach(id -> failures.put(id, e));
+            }
+        }
+        sentCounter.increment(bookings.size() - failures.size());
+        failedCounter.increment(failures.size());
+        return failures;
+    }
+
+    private void render(Booking booking, Context context, StringWriter buffer) {
+        context.clearVariables();
+        context.setVariable("firstName", booking.getCustomerFirstName());
+        context.setVariable("lastName", booking.getCustomerLastName());
+        context.setVariable("flightNumber", booking.getFlight().getFlightNumber());
+        context.setVariable("departure", DateTimeCodec.format(booking.getFlight().getEstDepartureTime()));
+        context.setVariable("arrival", DateTimeCodec.format(booking.getFlight().getEstArrivalTime()));
+        context.setVariable("bookingDate", DateTimeCodec.format(booking.getBookingDate()));
+        templateEngine.process(CONFIRMATION_TEMPLATE, context, buffer);
+    }
+
+    /**
+     * Devuelve la confirmación ya enviada de un booking, del archivo por segmentos o del fichero individual.
+     */
+    public Optional<String> findConfirmation(long bookingId) {
+        if (confirmationArchive.isEnabled()) {
+            return confirmationArchive.find(bookingId);
+        }
+        Path file = Path.of(confirmationFileName(bookingId));
+        try {
+            return Files.exists(file) ? Optional.of(Files.readString(file)) : Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read email confirmation " + bookingId, e);
+        }
+    }
+
+    private static String confirmationFileName(long bookingId) {
+        return "flight_booking_email_" + bookingId + ".txt";
+    }
+
+    private void write(Booking booking, StringWriter buffer) {
+        String filename = confirmationFileName(booking.getId());
 
         try (FileWriter writer = new FileWriter(filename)) {
-            writer.write(emailContent.toString());
+            writer.append(buffer.getBuffer());
             log.info("Email confirmation saved to: {}", filename);
         } catch (IOException e) {
             log.error("Error writing email file: {}", e.getMessage());
             throw new RuntimeException("Failed to send email confirmation", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package org.e2e.labe2e03.service;
+
+import lombok.Getter;
+import org.e2e.labe2e03.dto.response.FlightImportErrorDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progreso de un import de /flights/create-many. Los chunks se procesan en paralelo y cada uno
+ * reporta sus contadores al terminar; el job queda completo cuando ya no se van a enviar más chunks
+ * y todos los enviados terminaron.
+ */
+@Getter
+public class FlightImportJob {
+
+    public enum Status { RUNNING, COMPLETED }
+
+    private final String id;
+    private final Instant startedAt = Instant.now();
+    private volatile Instant finishedAt;
+    private volatile boolean submissionFinished;
+
+    private final AtomicInteger submittedRows = new AtomicInteger();
+    private final AtomicInteger processedRows = new AtomicInteger();
+    private final AtomicInteger succeededRows = new AtomicInteger();
+    private final AtomicInteger failedRows = new AtomicInteger();
+    private final AtomicInteger pendingChunks = new AtomicInteger();
+    private final ConcurrentLinkedQueue<FlightImportErrorDTO> errors = new ConcurrentLinkedQueue<>();
+
+    public FlightImportJob(String id) {
+        this.id = id;
+    }
+
+    void chunkSubmitted(int rows) {
+        submittedRows.addAndGet(rows);
+        pendingChunks.incrementAndGet();
+    }
+
+    void chunkCompleted(int rows, int succeeded, List<FlightImportErrorDTO> chunkErrors) {
+        processedRows.addAndGet(rows);
+        succeededRows.addAndGet(succeeded);
+        failedRows.addAndGet(chunkErrors.size());
+        errors.addAll(chunkErrors);
+        if (pendingChunks.decrementAndGet() == 0 && submissionFinished) {
+            markFinished();
+        }
+    }
+
+    // Fila que ni siquiera llegó a un chunk (p. ej. JSON inválido en un import en streaming)
+    void rowRejected(FlightImportErrorDTO error) {
+        submittedRows.incrementAndGet();
+        processedRows.incrementAndGet();
+        failedRows.incrementAndGet();
+        errors.add(error);
+    }
+
+    void submissionFinished() {
+        submissionFinished = true;
+        if (pendingChunks.get() == 0) {
+            markFinished();
+        }
+    }
+
+    private synchronized void markFinished() {
+        if (finishedAt == null) {
+            finishedAt = Instant.now();
+        }
+    }
+
+    public Status getStatus() {
+        return finishedAt != null ? Status.COMPLETED : Status.RUNNING;
+    }
+
+    public double getRowsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return processedRows.get() * 1000.0 / millis;
+    }
+
+    public List<FlightImportErrorDTO> getErrorList() {
+        return new ArrayList<>(errors);
+    }
+}
@@ -0,0 +1,387 @@
+package org.e2e.labe2e03.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.e2e.labe2e03.config.CountingAbortPolicy;
+import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
+import org.e2e.labe2e03.dto.response.FlightImportErrorDTO;
+import org.e2e.labe2e03.dto.response.FlightImportExecutorStatsDTO;
+import org.e2e.labe2e03.dto.response.FlightImportJobDTO;
+import org.e2e.labe2e03.entity.Flight;
+import org.e2e.labe2e03.exception.ServiceBusyException;
+import org.e2e.labe2e03.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlightImportService {
+
+    private static final String INSERT_FLIGHT_SQL = "INSERT INTO flights " +
+            "(airline_name, flight_number, est_departure_time, est_arrival_time, available_seats, remaining_seats) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final FlightService flightService;
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightSearchCache flightSearchCache;
+    private final FlightRepository flightRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor flightImportExecutor;
+    private final CountingAbortPolicy flightImportRejectionPolicy;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${flights.import.chunk-size:1000}")
+    private int importChunkSize;
+
+    @Value("${flights.import.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Value("${flights.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, FlightImportJob> jobs = new ConcurrentHashMap<>();
+
+    // rows/s se obtiene como rate() de los contadores; cola y workers activos los publica Boot como executor.*
+    private Timer chunkTimer;
+    private Counter importedRows;
+    private Counter failedRows;
+
+    // Con un chunk de 0 o menos el reparto en chunks nunca avanza: mejor que la aplicación no arranque
+    @PostConstruct
+    void validateSettings() {
+        if (importChunkSize <= 0) {
+            throw new IllegalStateException("flights.import.chunk-size must be greater than 0, got " + importChunkSize);
+        }
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        chunkTimer = Timer.builder("flyaway.import.chunk")
+                .description("Validación e inserción de un chunk de create-many")
+                .register(meterRegistry);
+        importedRows = Counter.builder("flyaway.import.rows")
+                .tag("result", "created")
+                .register(meterRegistry);
+        failedRows = Counter.builder("flyaway.import.rows")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("flyaway.import.rejected", flightImportRejectionPolicy,
+                        CountingAbortPolicy::getRejectedCount)
+                .description("Tareas rechazadas por el pool de import (cola llena)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Crea el job y lo reparte entre, como mucho, {@code parallelism} workers que van tomando chunks hasta
+     * agotarlos; así un import grande ocupa pocas entradas de la cola. Retorna sin esperar.
+     *
+     * @throws ServiceBusyException si el pool no admite ningún worker
+     */
+    public FlightImportJob startImport(List<NewFlightRequestDTO> flights) {
+        if (flights == null) {
+            throw new IllegalArgumentException("Inputs are mandatory");
+        }
+
+        FlightImportJob job = newJob();
+        log.info("Starting import job {} with {} flights", job.getId(), flights.size());
+
+        List<List<NewFlightRequestDTO>> chunks = new ArrayList<>();
+        for (int from = 0; from < flights.size(); from += importChunkSize) {
+            List<NewFlightRequestDTO> rows = flights.subList(from, Math.min(from + importChunkSize, flights.size()));
+            job.chunkSubmitted(rows.size());
+            chunks.add(rows);
+        }
+
+        AtomicInteger nextChunk = new AtomicInteger();
+        int workers = Math.min(flightImportExecutor.getMaxPoolSize(), chunks.size());
+        int started = 0;
+        for (int i = 0; i < workers; i++) {
+            try {
+                flightImportExecutor.execute(() -> {
+                    int index;
+                    while ((index = nextChunk.getAndIncrement()) < chunks.size()) {
+                        runChunk(job, chunks.get(index), index * importChunkSize);
+                    }
+                });
+                started++;
+            } catch (TaskRejectedException e) {
+                break;
+            }
+        }
+        if (started == 0 && !chunks.isEmpty()) {
+            jobs.remove(job.getId());
+            throw busy();
+        }
+        job.submissionFinished();
+        return job;
+    }
+
+    /**
+     * Variante en streaming: lee objetos {@link NewFlightRequestDTO} uno a uno (NDJSON o un arreglo JSON)
+     * y envía cada chunk apenas se completa. Como máximo hay {@code 2 * parallelism} chunks en vuelo,
+     * así que la memoria usada no depende del tamaño del cuerpo. Retorna cuando terminó de leerlo.
+     * Si la cola se llena a mitad de camino, el chunk se procesa en el hilo de la petición. Un cuerpo inválido
+     * o cortado (cliente que aborta, timeout de lectura) queda como error del job, que se devuelve igual porque
+     * los chunks ya enviados siguen corriendo.
+     *
+     * @throws ServiceBusyException si la cola del pool ya está llena antes de empezar
+     */
+    public FlightImportJob startStreamingImport(InputStream body) {
+        if (flightImportExecutor.getThreadPoolExecutor().getQueue().remainingCapacity() == 0) {
+            throw busy();
+        }
+
+        FlightImportJob job = newJob();
+        log.info("Starting streaming import job {}", job.getId());
+
+        Semaphore chunksInFlight = new Semaphore(flightImportExecutor.getMaxPoolSize() * 2);
+        List<NewFlightRequestDTO> chunk = new ArrayList<>(importChunkSize);
+        int row = 0;
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token == JsonToken.START_OBJECT) {
+                chunk.add(objectMapper.readValue(parser, NewFlightRequestDTO.class));
+                row++;
+                if (chunk.size() == importChunkSize) {
+                    submitBounded(job, chunk, row - chunk.size(), chunksInFlight);
+                    chunk = new ArrayList<>(importChunkSize);
+                }
+                token = parser.nextToken();
+            }
+
+            if (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                job.rowRejected(new FlightImportErrorDTO(row, null, "Each flight must be a JSON object", null));
+            }
+        } catch (JsonProcessingException e) {
+            job.rowRejected(new FlightImportErrorDTO(row, null, "Invalid JSON: " + e.getOriginalMessage(), null));
+        } catch (IOException e) {
+            log.warn("Import job {} stopped reading the request body at row {}: {}", job.getId(), row, e.getMessage());
+            job.rowRejected(new FlightImportErrorDTO(row, null, "Error reading request body: " + e.getMessage(), null));
+        } finally {
+            if (!chunk.isEmpty()) {
+                submitBounded(job, chunk, row - chunk.size(), chunksInFlight);
+            }
+            job.submissionFinished();
+        }
+        return job;
+    }
+
+    private void submitBounded(FlightImportJob job, List<NewFlightRequestDTO> rows, int firstRow, Semaphore chunksInFlight) {
+        try {
+            chunksInFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for import workers", e);
+        }
+        job.chunkSubmitted(rows.size());
+        try {
+            flightImportExecutor.execute(() -> {
+                try {
+                    runChunk(job, rows, firstRow);
+                } finally {
+                    chunksInFlight.release();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Backpressure: el lector hace el trabajo en lugar de acumularlo
+            try {
+                runChunk(job, rows, firstRow);
+            } finally {
+                chunksInFlight.release();
+            }
+        }
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Flight import queue is full, retry later", retryAfterSeconds);
+    }
+
+    private FlightImportJob newJob() {
+        FlightImportJob job = new FlightImportJob(UUID.randomUUID().toString());
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void runChunk(FlightImportJob job, List<NewFlightRequestDTO> rows, int firstRow) {
+        List<FlightImportErrorDTO> errors = new ArrayList<>();
+        int succeeded = 0;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            succeeded = importChunk(rows, firstRow, errors);
+        } catch (RuntimeException e) {
+            log.error("Import job {} failed on chunk starting at row {}: {}", job.getId(), firstRow, e.getMessage());
+            errors.clear();
+            for (int i = 0; i < rows.size(); i++) {
+                errors.add(error(rows, firstRow, firstRow + i, "Error saving flight: " + e.getMessage()));
+            }
+        } finally {
+            sample.stop(chunkTimer);
+        }
+        importedRows.increment(succeeded);
+        failedRows.increment(errors.size());
+        job.chunkCompleted(rows.size(), succeeded, errors);
+        if (job.getStatus() == FlightImportJob.Status.COMPLETED) {
+            log.info("Finished import job {}: {} created, {} failed",
+                    job.getId(), job.getSucceededRows().get(), job.getFailedRows().get());
+        }
+    }
+
+    /**
+     * Valida el chunk completo, descarta los números de vuelo repetidos (en el chunk y en la BD con una sola
+     * consulta) e inserta el resto en un único batch JDBC con su propio commit.
+     * Devuelve cuántos vuelos se crearon; los rechazos se agregan a {@code errors}.
+     */
+    private int importChunk(List<NewFlightRequestDTO> rows, int firstRow, List<FlightImportErrorDTO> errors) {
+        Map<String, Integer> rowByFlightNumber = new HashMap<>();
+        List<Flight> candidates = new ArrayList<>(rows.size());
+
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                Flight flight = flightService.toValidatedFlight(rows.get(i));
+                if (rowByFlightNumber.putIfAbsent(flight.getFlightNumber(), firstRow + i) != null) {
+                    throw new IllegalArgumentException("Flight number cannot be repeated");
+                }
+                candidates.add(flight);
+            } catch (IllegalArgumentException e) {
+                errors.add(error(rows, firstRow, firstRow + i, e.getMessage()));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> existing = flightRepository.findExistingFlightNumbers(rowByFlightNumber.keySet());
+        List<Flight> toInsert = new ArrayList<>(candidates.size());
+        for (Flight flight : candidates) {
+            if (existing.contains(flight.getFlightNumber())) {
+                errors.add(error(rows, firstRow, rowByFlightNumber.get(flight.getFlightNumber()),
+                        "Flight number cannot be repeated"));
+            } else {
+                toInsert.add(flight);
+            }
+        }
+
+        List<Flight> inserted = new ArrayList<>(toInsert.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(toInsert));
+            inserted.addAll(toInsert);
+        } catch (DataIntegrityViolationException e) {
+            // Otro import concurrente insertó alguno de estos números: reintentar fila por fila
+            for (Flight flight : toInsert) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(flight)));
+                    inserted.add(flight);
+                } catch (DataIntegrityViolationException ex) {
+                    errors.add(error(rows, firstRow, rowByFlightNumber.get(flight.getFlightNumber()),
+                            "Flight number cannot be repeated"));
+                }
+            }
+        } catch (DataAccessException e) {
+            for (Flight flight : toInsert) {
+                errors.add(error(rows, firstRow, rowByFlightNumber.get(flight.getFlightNumber()),
+                        "Error saving flight: " + e.getMostSpecificCause().getMessage()));
+            }
+        }
+
+        // El batch JDBC no devuelve los ids: se leen con una sola consulta para el índice de búsqueda
+        if (!inserted.isEmpty()) {
+            flightSearchIndex.addAll(flightRepository.findSearchKeys(
+                    inserted.stream().map(Flight::getFlightNumber).toList()));
+            flightSearchCache.invalidate(inserted);
+        }
+        return inserted.size();
+    }
+
+    private FlightImportErrorDTO error(List<NewFlightRequestDTO> rows, int firstRow, int row, String message) {
+        NewFlightRequestDTO input = rows.get(row - firstRow);
+        return new FlightImportErrorDTO(row, input.getFlightNumber(), message, input);
+    }
+
+    private void insertBatch(List<Flight> flights) {
+        jdbcTemplate.batchUpdate(INSERT_FLIGHT_SQL, flights, flights.size(), (ps, flight) -> {
+            ps.setString(1, flight.getAirlineName());
+            ps.setString(2, flight.getFlightNumber());
+            ps.setObject(3, flight.getEstDepartureTime());
+            ps.setObject(4, flight.getEstArrivalTime());
+            ps.setInt(5, flight.getAvailableSeats());
+            ps.setInt(6, flight.getRemainingSeats());
+        });
+    }
+
+    public FlightImportExecutorStatsDTO getExecutorStats() {
+        ThreadPoolExecutor pool = flightImportExecutor.getThreadPoolExecutor();
+        return new FlightImportExecutorStatsDTO(
+                pool.getMaximumPoolSize(),
+                pool.getActiveCount(),
+                pool.getQueue().size(),
+                flightImportExecutor.getQueueCapacity(),
+                pool.getCompletedTaskCount(),
+                flightImportRejectionPolicy.getRejectedCount());
+    }
+
+    public Optional<FlightImportJobDTO> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(this::convertToDTO);
+    }
+
+    private FlightImportJobDTO convertToDTO(FlightImportJob job) {
+        FlightImportJobDTO dto = new FlightImportJobDTO();
+        dto.setJobId(job.getId());
+        dto.setStatus(job.getStatus().name());
+        dto.setSubmittedRows(job.getSubmittedRows().get());
+        dto.setProcessedRows(job.getProcessedRows().get());
+        dto.setSucceededRows(job.getSucceededRows().get());
+        dto.setFailedRows(job.getFailedRows().get());
+        dto.setRowsPerSecond(job.getRowsPerSecond());
+        dto.setStartedAt(job.getStartedAt().toString());
+        dto.setFinishedAt(job.getFinishedAt() != null ? job.getFinishedAt().toString() : null);
+        dto.setErrors(job.getErrorList());
+        return dto;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        Instant threshold = Instant.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(threshold));
+    }
+}
@@ -0,0 +1,173 @@
+package org.e2e.labe2e03.service;
+
+import org.e2e.labe2e03.dto.response.FlightSearchCacheStatsDTO;
+import org.e2e.labe2e03.dto.response.FlightSearchResponseDTO;
+import org.e2e.labe2e03.entity.Flight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache LRU con TTL de páginas de /flights/search, indexada por la consulta normalizada.
+ * <p>
+ * Cuando se crea un vuelo solo se invalidan las entradas cuyos filtros lo incluirían; el cursor no se
+ * mira, así que se invalidan todas las páginas de esa consulta. Para que una búsqueda que empezó antes
+ * de la invalidación no guarde un resultado viejo, solo se cachea si no hubo invalidaciones mientras corría.
+ */
+@Service
+public class FlightSearchCache {
+
+    @Value("${flights.search.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${flights.search.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${flights.search.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public record Key(String flightNumber, String airlineName, LocalDateTime fromDate, LocalDateTime toDate,
+                      boolean descending, String cursor, int pageSize) {
+
+        public Key {
+            flightNumber = flightNumber != null ? flightNumber.toLowerCase(Locale.ROOT) : null;
+            airlineName = airlineName != null ? airlineName.toLowerCase(Locale.ROOT) : null;
+        }
+
+        boolean matches(ChangedFlight flight) {
+            return (flightNumber == null || flight.flightNumber().contains(flightNumber))
+                    && (airlineName == null || flight.airlineName().contains(airlineName))
+                    && (fromDate == null || !flight.departure().isBefore(fromDate))
+                    && (toDate == null || !flight.departure().isAfter(toDate));
+        }
+    }
+
+    private record Entry(FlightSearchResponseDTO response, long expiresAt) {
+    }
+
+    // Campos del vuelo ya normalizados como los de Key, para no pasar a minúsculas en cada comparación
+    private record ChangedFlight(String flightNumber, String airlineName, LocalDateTime departure) {
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public FlightSearchResponseDTO get(Key key) {
+        if (!cacheEnabled) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.response();
+        }
+    }
+
+    /**
+     * Guarda la respuesta salvo que haya habido una invalidación desde {@code generationAtStart}.
+     */
+    public void put(Key key, FlightSearchResponseDTO response, long generationAtStart) {
+        if (!cacheEnabled) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation.get() != generationAtStart) {
+                return;
+            }
+            entries.put(key, new Entry(response, System.currentTimeMillis() + ttlSeconds * 1000));
+            Iterator<Key> eldest = entries.keySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Quita las entradas cuyos filtros incluirían alguno de los vuelos. Las claves se comparan sobre una copia
+     * fuera del lock, así que un import grande no bloquea las búsquedas; el incremento de generación al tomar
+     * la copia impide que se guarde un resultado calculado antes de que los vuelos fueran visibles.
+     */
+    public void invalidate(Collection<Flight> changedFlights) {
+        if (!cacheEnabled || changedFlights.isEmpty()) {
+            return;
+        }
+        List<ChangedFlight> flights = new ArrayList<>(changedFlights.size());
+        for (Flight flight : changedFlights) {
+            flights.add(new ChangedFlight(flight.getFlightNumber().toLowerCase(Locale.ROOT),
+                    flight.getAirlineName().toLowerCase(Locale.ROOT), flight.getEstDepartureTime()));
+        }
+
+        List<Key> snapshot;
+        synchronized (entries) {
+            generation.incrementAndGet();
+            snapshot = new ArrayList<>(entries.keySet());
+        }
+
+        List<Key> stale = new ArrayList<>();
+        for (Key key : snapshot) {
+            for (ChangedFlight flight : flights) {
+                if (key.matches(flight)) {
+                    stale.add(key);
+                    break;
+                }
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        synchronized (entries) {
+            for (Key key : stale) {
+                if (entries.remove(key) != null) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public FlightSearchCacheStatsDTO stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long lookups = hits.get() + misses.get();
+        return new FlightSearchCacheStatsDTO(size, hits.get(), misses.get(), evictions.get(), invalidations.get(),
+                lookups == 0 ? 0.0 : (double) hits.get() / lookups);
+    }
+}
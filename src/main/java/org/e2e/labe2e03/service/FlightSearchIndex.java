@@ -0,0 +1,280 @@
+package org.e2e.labe2e03.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.e2e.labe2e03.repository.FlightRepository;
+import org.e2e.labe2e03.repository.FlightSearchKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice de trigramas en memoria para los filtros por substring de /flights/search
+ * ({@code LIKE '%x%'} no puede usar un índice B-tree).
+ * <p>
+ * Cada trigrama en minúsculas de flightNumber y airlineName apunta a una lista ordenada de ids.
+ * Un filtro de 3 o más caracteres se resuelve intersectando las listas de sus trigramas y verificando
+ * el substring sobre el texto guardado, así que el resultado es exacto. Filtros más cortos, o con más
+ * de {@code flights.search.index.max-candidates} coincidencias, se dejan a la base de datos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlightSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final FlightRepository flightRepository;
+
+    @Value("${flights.search.index.enabled:true}")
+    private boolean indexEnabled;
+
+    @Value("${flights.search.index.max-candidates:5000}")
+    private int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> flightNumberGrams = new HashMap<>();
+    private final Map<Long, PostingList> airlineNameGrams = new HashMap<>();
+    private final Map<Long, String> flightNumbers = new HashMap<>();
+    private final Map<Long, String> airlineNames = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * Filtros que quedan después de consultar el índice: si {@code ids} no es null, el resultado está
+     * limitado a esos vuelos y los filtros que el índice ya resolvió vienen en null.
+     */
+    public record Resolution(List<Long> ids, String flightNumber, String airlineName) {
+
+        public boolean isEmpty() {
+            return ids != null && ids.isEmpty();
+        }
+    }
+
+    public Resolution resolve(String flightNumber, String airlineName) {
+        if (!indexEnabled || !ready) {
+            return new Resolution(null, flightNumber, airlineName);
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] ids = null;
+            String residualFlightNumber = flightNumber;
+            String residualAirlineName = airlineName;
+
+            long[] byNumber = match(flightNumber, flightNumberGrams, flightNumbers);
+            if (byNumber != null) {
+                ids = byNumber;
+                residualFlightNumber = null;
+            }
+            long[] byAirline = match(airlineName, airlineNameGrams, airlineNames);
+            if (byAirline != null) {
+                ids = ids == null ? byAirline : intersect(ids, byAirline);
+                residualAirlineName = null;
+            }
+
+            if (ids == null || ids.length > maxCandidates) {
+                return new Resolution(null, flightNumber, airlineName);
+            }
+            return new Resolution(Arrays.stream(ids).boxed().toList(), residualFlightNumber, residualAirlineName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(Long id, String flightNumber, String airlineName) {
+        if (!indexEnabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addUnlocked(id, flightNumber, airlineName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(Collection<FlightSearchKey> keys) {
+        if (!indexEnabled || keys.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (FlightSearchKey key : keys) {
+                addUnlocked(key.id(), key.flightNumber(), key.airlineName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addUnlocked(Long id, String flightNumber, String airlineName) {
+        String number = flightNumber.toLowerCase(Locale.ROOT);
+        String airline = airlineName.toLowerCase(Locale.ROOT);
+        flightNumbers.put(id, number);
+        airlineNames.put(id, airline);
+        indexGrams(id, number, flightNumberGrams);
+        indexGrams(id, airline, airlineNameGrams);
+    }
+
+    // No limpia lo existente: add es idempotente y así no se pierden vuelos creados durante la reconstrucción
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!indexEnabled) {
+            return;
+        }
+        List<FlightSearchKey> batch = new ArrayList<>(1000);
+        try (Stream<FlightSearchKey> keys = flightRepository.streamSearchKeys()) {
+            keys.forEach(key -> {
+                batch.add(key);
+                if (batch.size() == 1000) {
+                    addAll(batch);
+                    batch.clear();
+                }
+            });
+        }
+        addAll(batch);
+        ready = true;
+        log.info("Flight search index built with {} flights", size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return flightNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            flightNumberGrams.clear();
+            airlineNameGrams.clear();
+            flightNumbers.clear();
+            airlineNames.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // null si el filtro no se puede resolver con el índice (muy corto o con demasiados candidatos)
+    private long[] match(String query, Map<Long, PostingList> grams, Map<Long, String> texts) {
+        if (query == null || query.length() < GRAM) {
+            return null;
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+
+        List<PostingList> lists = new ArrayList<>(needle.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            PostingList list = grams.get(gramKey(needle, i));
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        // Si ya la lista más corta supera el límite, el resultado tampoco cabe: el filtro queda para la BD
+        PostingList smallest = lists.get(0);
+        if (smallest.size > maxCandidates) {
+            return null;
+        }
+        long[] candidates = Arrays.copyOf(smallest.ids, smallest.size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = retainAll(candidates, count, lists.get(i));
+        }
+
+        // Tener todos los trigramas no garantiza que aparezcan contiguos: verificar el substring
+        int matched = 0;
+        for (int i = 0; i < count; i++) {
+            long id = candidates[i];
+            if (texts.get(id).contains(needle)) {
+                candidates[matched++] = id;
+            }
+        }
+        return Arrays.copyOf(candidates, matched);
+    }
+
+    private static void indexGrams(long id, String text, Map<Long, PostingList> grams) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.computeIfAbsent(gramKey(text, i), k -> new PostingList()).add(id);
+        }
+    }
+
+    private static long gramKey(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    // Deja en candidates[0, count) solo los ids que están en la lista, sin copiarla: búsqueda binaria desde
+    // la última posición encontrada, O(count · log size) aunque la lista tenga millones de ids
+    private static int retainAll(long[] candidates, int count, PostingList list) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < count && from < list.size; i++) {
+            int position = Arrays.binarySearch(list.ids, from, list.size, candidates[i]);
+            if (position >= 0) {
+                candidates[kept++] = candidates[i];
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    // Lista de ids ordenada y sin repetidos; los ids crecen, así que casi siempre es un append
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int position = size;
+            if (size > 0 && ids[size - 1] >= id) {
+                position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                position = -position - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -1,23 +1,37 @@
 package org.e2e.labe2e03.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
 import org.e2e.labe2e03.dto.response.FlightDTO;
+import org.e2e.labe2e03.dto.response.FlightSearchCacheStatsDTO;
+import org.e2e.labe2e03.dto.response.FlightSearchResponseDTO;
 import org.e2e.labe2e03.entity.Flight;
 import org.e2e.labe2e03.repository.FlightRepository;
+import org.e2e.labe2e03.repository.FlightSummary;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,60 +39,64 @@ import java.util.stream.Collectors;
 public class FlightService {
 
     private final FlightRepository flightRepository;
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightSearchCache flightSearchCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${flights.search.max-page-size:1000}")
+    private int maxPageSize;
+
+    private final Map<String, Timer> searchTimers = new ConcurrentHashMap<>();
+    private DistributionSummary searchResultSize;
 
     private static final Pattern FLIGHT_NUMBER_PATTERN = Pattern.compile("^[A-Z]{2,3}[0-9]{3}$");
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+
+    @PostConstruct
+    void registerMeters() {
+        searchResultSize = DistributionSummary.builder("flyaway.search.results")
+                .description("Vuelos devueltos por página de búsqueda")
+                .register(meterRegistry);
+    }
 
     @Transactional
     public Long createFlight(NewFlightRequestDTO dto) {
-        validateFlight(dto);
+        Flight flight = toValidatedFlight(dto);
 
-        Flight flight = new Flight();
-        flight.setAirlineName(dto.getAirlineName());
-        flight.setFlightNumber(dto.getFlightNumber());
-        flight.setEstDepartureTime(parseDateTime(dto.getEstDepartureTime()));
-        flight.setEstArrivalTime(parseDateTime(dto.getEstArrivalTime()));
-        flight.setAvailableSeats(dto.getAvailableSeats());
+        if (flightRepository.existsByFlightNumber(flight.getFlightNumber())) {
+            throw new IllegalArgumentException("Flight number cannot be repeated");
+        }
 
         Flight savedFlight = flightRepository.save(flight);
+        publishAfterCommit(savedFlight);
         return savedFlight.getId();
     }
 
-    private LocalDateTime parseDateTime(String dateTimeStr) {
-        try {
-            return LocalDateTime.parse(dateTimeStr, ISO_FORMATTER);
-        } catch (DateTimeParseException e) {
-            // Intentar parsear como ZonedDateTime (formato del tester)
-            try {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", java.util.Locale.ENGLISH);
-                ZonedDateTime zonedDateTime = ZonedDateTime.parse(dateTimeStr, formatter);
-                return zonedDateTime.toLocalDateTime();
-            } catch (DateTimeParseException ex) {
-                throw new IllegalArgumentException("Invalid date format: " + dateTimeStr);
-            }
+    // El vuelo solo es visible para el índice de búsqueda y la cache una vez confirmado
+    private void publishAfterCommit(Flight flight) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishCreated(flight);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishCreated(flight);
+            }
+        });
     }
 
-    @Async
-    @Transactional
-    public void createFlightsAsync(List<NewFlightRequestDTO> flights) {
-        log.info("Starting async creation of {} flights", flights.size());
-
-        for (NewFlightRequestDTO dto : flights) {
-            try {
-                // Reutilizar el método createFlight que ya tiene todas las validaciones
-                Long flightId = createFlight(dto);
-                log.info("Created flight: {} with ID: {}", dto.getFlightNumber(), flightId);
-            } catch (Exception e) {
-                log.error("Error creating flight {}: {}", dto.getFlightNumber(), e.getMessage());
-                // No lanzar la excepción, solo registrarla para que continúe con los demás vuelos
-            }
-        }
+    private void publishCreated(Flight flight) {
+        flightSearchIndex.add(flight.getId(), flight.getFlightNumber(), flight.getAirlineName());
+        flightSearchCache.invalidate(List.of(flight));
+    }
 
-        log.info("Finished async creation of {} flights", flights.size());
+    // Package-private para los benchmarks JMH (src/jmh/java)
+    LocalDateTime parseDateTime(String dateTimeStr) {
+        return DateTimeCodec.parse(dateTimeStr);
     }
 
-    private void validateFlight(NewFlightRequestDTO dto) {
+    // Valida los campos y construye el vuelo parseando cada fecha una sola vez (sin consultar la BD)
+    public Flight toValidatedFlight(NewFlightRequestDTO dto) {
         if (dto.getAirlineName() == null || dto.getAirlineName().trim().isEmpty()) {
             throw new IllegalArgumentException("Airline name is mandatory");
         }
@@ -110,13 +128,51 @@ public class FlightService {
             throw new IllegalArgumentException("Available seats must be greater than 0");
         }
 
-        if (flightRepository.existsByFlightNumber(dto.getFlightNumber())) {
-            throw new IllegalArgumentException("Flight number cannot be repeated");
+        Flight flight = new Flight();
+        flight.setAirlineName(dto.getAirlineName());
+        flight.setFlightNumber(dto.getFlightNumber());
+        flight.setEstDepartureTime(departure);
+        flight.setEstArrivalTime(arrival);
+        flight.setAvailableSeats(dto.getAvailableSeats());
+        flight.setRemainingSeats(dto.getAvailableSeats());
+        return flight;
+    }
+
+    /**
+     * Búsqueda paginada por keyset sobre (estDepartureTime, id). {@code sort} es "asc" (por defecto) o "desc";
+     * {@code cursor} es el {@code nextCursor} de la página anterior y solo es válido con el mismo orden.
+     */
+    @Transactional(readOnly = true)
+    public FlightSearchResponseDTO searchFlights(String flightNumber, String airlineName,
+                                                 String estDepartureTimeFrom, String estDepartureTimeTo,
+                                                 String sort, String cursor, Integer limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            FlightSearchResponseDTO response = search(flightNumber, airlineName, estDepartureTimeFrom,
+                    estDepartureTimeTo, sort, cursor, limit);
+            outcome = "success";
+            searchResultSize.record(response.getItems().size());
+            return response;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } finally {
+            sample.stop(searchTimer("page", outcome));
         }
     }
 
-    public List<FlightDTO> searchFlights(String flightNumber, String airlineName,
-                                         String estDepartureTimeFrom, String estDepartureTimeTo) {
+    private Timer searchTimer(String mode, String outcome) {
+        return searchTimers.computeIfAbsent(mode + ":" + outcome, key -> Timer.builder("flyaway.search")
+                .description("FlightService.searchFlights por modo y resultado")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private FlightSearchResponseDTO search(String flightNumber, String airlineName,
+                                           String estDepartureTimeFrom, String estDepartureTimeTo,
+                                           String sort, String cursor, Integer limit) {
         LocalDateTime fromDate = null;
         LocalDateTime toDate = null;
 
@@ -128,30 +184,182 @@ public class FlightService {
             toDate = parseDateTime(estDepartureTimeTo);
         }
 
-        List<Flight> flights = flightRepository.searchFlights(flightNumber, airlineName, fromDate, toDate);
+        boolean descending = parseSortDescending(sort);
+        int pageSize = resolvePageSize(limit);
+
+        LocalDateTime afterDeparture = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor, descending);
+            afterDeparture = DateTimeCodec.parse(position[1]);
+            afterId = Long.valueOf(position[2]);
+        }
+
+        FlightSearchCache.Key cacheKey = new FlightSearchCache.Key(flightNumber, airlineName, fromDate, toDate,
+                descending, cursor, pageSize);
+        FlightSearchResponseDTO cached = flightSearchCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        long cacheGeneration = flightSearchCache.currentGeneration();
+
+        // Los filtros por substring se resuelven primero contra el índice de trigramas si es posible
+        FlightSearchIndex.Resolution filter = flightSearchIndex.resolve(flightNumber, airlineName);
+        if (filter.isEmpty()) {
+            FlightSearchResponseDTO empty = new FlightSearchResponseDTO(List.of(), null);
+            flightSearchCache.put(cacheKey, empty, cacheGeneration);
+            return empty;
+        }
+
+        // Se pide un elemento extra solo para saber si hay página siguiente
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<FlightSummary> flights;
+        if (filter.ids() != null) {
+            flights = descending
+                    ? flightRepository.searchFlightsByIdsDescending(filter.ids(), filter.flightNumber(),
+                            filter.airlineName(), fromDate, toDate, afterDeparture, afterId, page)
+                    : flightRepository.searchFlightsByIdsAscending(filter.ids(), filter.flightNumber(),
+                            filter.airlineName(), fromDate, toDate, afterDeparture, afterId, page);
+        } else {
+            flights = descending
+                    ? flightRepository.searchFlightsDescending(flightNumber, airlineName, fromDate, toDate,
+                            afterDeparture, afterId, page)
+                    : flightRepository.searchFlightsAscending(flightNumber, airlineName, fromDate, toDate,
+                            afterDeparture, afterId, page);
+        }
+
+        String nextCursor = null;
+        if (flights.size() > pageSize) {
+            flights = flights.subList(0, pageSize);
+            nextCursor = encodeCursor(flights.get(pageSize - 1), descending);
+        }
 
-        return flights.stream()
+        List<FlightDTO> items = flights.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        FlightSearchResponseDTO response = new FlightSearchResponseDTO(items, nextCursor);
+        flightSearchCache.put(cacheKey, response, cacheGeneration);
+        return response;
+    }
+
+    /**
+     * Valida y parsea los filtros del modo streaming. Se llama antes de empezar a escribir la respuesta para que
+     * un filtro inválido todavía pueda responder 400.
+     */
+    public StreamQuery prepareStream(String flightNumber, String airlineName,
+                                     String estDepartureTimeFrom, String estDepartureTimeTo) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDateTime fromDate = null;
+        LocalDateTime toDate = null;
+
+        try {
+            if (estDepartureTimeFrom != null && !estDepartureTimeFrom.trim().isEmpty()) {
+                fromDate = parseDateTime(estDepartureTimeFrom);
+            }
+
+            if (estDepartureTimeTo != null && !estDepartureTimeTo.trim().isEmpty()) {
+                toDate = parseDateTime(estDepartureTimeTo);
+            }
+        } catch (IllegalArgumentException e) {
+            // El stream rechazado no llega a streamFlights: se mide acá para que quede con su resultado
+            sample.stop(searchTimer("stream", "invalid"));
+            throw e;
+        }
+
+        return new StreamQuery(flightNumber, airlineName, fromDate, toDate);
+    }
+
+    /**
+     * Recorre todos los resultados de la búsqueda con un cursor del driver y entrega cada vuelo a {@code sink}
+     * a medida que se lee.
+     */
+    @Transactional(readOnly = true)
+    public void streamFlights(StreamQuery query, Consumer<FlightDTO> sink) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        // Las proyecciones no quedan en el persistence context, así que la memoria no crece con los resultados
+        try (Stream<FlightSummary> flights = flightRepository.streamFlights(query.flightNumber(), query.airlineName(),
+                query.fromDate(), query.toDate())) {
+            flights.map(this::convertToDTO).forEach(sink);
+            outcome = "success";
+        } finally {
+            sample.stop(searchTimer("stream", outcome));
+        }
+    }
+
+    // Filtros del modo streaming ya validados por prepareStream
+    public record StreamQuery(String flightNumber, String airlineName, LocalDateTime fromDate, LocalDateTime toDate) {
+    }
+
+    private boolean parseSortDescending(String sort) {
+        if (sort == null || sort.isEmpty() || sort.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (sort.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Sort must be asc or desc");
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return maxPageSize;
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private String encodeCursor(FlightSummary last, boolean descending) {
+        String position = (descending ? "desc" : "asc") + "|" +
+                DateTimeCodec.format(last.estDepartureTime()) + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
     }
 
-    private FlightDTO convertToDTO(Flight flight) {
+    private String[] decodeCursor(String cursor, boolean descending) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 3 || !parts[0].equals(descending ? "desc" : "asc")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            DateTimeCodec.parse(parts[1]);
+            Long.parseLong(parts[2]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Package-private para los benchmarks JMH (src/jmh/java)
+    FlightDTO convertToDTO(FlightSummary flight) {
         FlightDTO dto = new FlightDTO();
-        dto.setId(String.valueOf(flight.getId()));
-        dto.setAirlineName(flight.getAirlineName());
-        dto.setFlightNumber(flight.getFlightNumber());
-        dto.setEstDepartureTime(flight.getEstDepartureTime().format(ISO_FORMATTER));
-        dto.setEstArrivalTime(flight.getEstArrivalTime().format(ISO_FORMATTER));
-        dto.setAvailableSeats(flight.getAvailableSeats());
+        dto.setId(String.valueOf(flight.id()));
+        dto.setAirlineName(flight.airlineName());
+        dto.setFlightNumber(flight.flightNumber());
+        dto.setEstDepartureTime(flight.estDepartureTime());
+        dto.setEstArrivalTime(flight.estArrivalTime());
+        dto.setAvailableSeats(flight.availableSeats());
         return dto;
     }
 
+    public FlightSearchCacheStatsDTO getSearchCacheStats() {
+        return flightSearchCache.stats();
+    }
+
     public Optional<Flight> findById(Long id) {
         return flightRepository.findById(id);
     }
 
+    public List<Flight> findAllById(List<Long> ids) {
+        return flightRepository.findAllById(ids);
+    }
+
     @Transactional
     public void deleteAll() {
         flightRepository.deleteAll();
+        flightSearchIndex.clear();
+        flightSearchCache.clear();
     }
 }
@@ -0,0 +1,195 @@
+package org.e2e.labe2e03.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.e2e.labe2e03.dto.response.SeatInventoryCheckDTO;
+import org.e2e.labe2e03.dto.response.SeatInventoryMismatchDTO;
+import org.e2e.labe2e03.entity.Flight;
+import org.e2e.labe2e03.repository.FlightRepository;
+import org.e2e.labe2e03.repository.SeatInventoryRow;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admisión de asientos por vuelo.
+ * <p>
+ * En modo {@code database} cada reserva es un UPDATE condicional sobre {@code flights.remaining_seats}.
+ * En modo {@code memory} los asientos restantes viven en contadores CAS por vuelo, la reserva no toca
+ * la base de datos y los contadores se escriben en lote cada {@code booking.seat-inventory.flush-interval-ms}.
+ * Solo es válido con un único nodo escribiendo bookings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventoryService implements SmartInitializingSingleton {
+
+    private static final String MEMORY_MODE = "memory";
+
+    private final FlightRepository flightRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${booking.seat-inventory.mode:database}")
+    private String mode;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> remainingSeats = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyFlights = ConcurrentHashMap.newKeySet();
+
+    public boolean isInMemory() {
+        return MEMORY_MODE.equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Reserva un asiento del vuelo. Debe llamarse dentro de la transacción del booking:
+     * si la transacción no hace commit, el asiento se libera.
+     */
+    public boolean reserveSeat(Flight flight) {
+        if (!isInMemory()) {
+            return flightRepository.decrementRemainingSeats(flight.getId()) == 1;
+        }
+
+        AtomicInteger counter = remainingSeats.computeIfAbsent(flight.getId(),
+                id -> new AtomicInteger(flight.getRemainingSeats()));
+        int current;
+        do {
+            current = counter.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - 1));
+
+        dirtyFlights.add(flight.getId());
+        releaseOnRollback(flight.getId());
+        return true;
+    }
+
+    private void releaseOnRollback(Long flightId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(flightId);
+                }
+            }
+        });
+    }
+
+    private void release(Long flightId) {
+        AtomicInteger counter = remainingSeats.get(flightId);
+        if (counter != null) {
+            counter.incrementAndGet();
+            dirtyFlights.add(flightId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.seat-inventory.flush-interval-ms:500}")
+    public void flush() {
+        if (!isInMemory() || dirtyFlights.isEmpty()) {
+            return;
+        }
+
+        List<Long> flightIds = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (Iterator<Long> it = dirtyFlights.iterator(); it.hasNext(); ) {
+            Long flightId = it.next();
+            // Quitar antes de leer: un cambio concurrente vuelve a marcarlo para el siguiente flush
+            it.remove();
+            AtomicInteger counter = remainingSeats.get(flightId);
+            if (counter != null) {
+                flightIds.add(flightId);
+                batch.add(new Object[]{counter.get(), flightId});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE flights SET remaining_seats = ? WHERE id = ?", batch);
+            log.debug("Flushed remaining seats of {} flights", batch.size());
+        } catch (DataAccessException e) {
+            log.error("Error flushing seat inventory: {}", e.getMessage());
+            dirtyFlights.addAll(flightIds);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Corre antes de que arranque el conector HTTP: con ApplicationReadyEvent ya podían entrar reservas
+    // y el clear() perdía los decrementos aún sin flush, sobrevendiendo esos asientos
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    private void rebuild() {
+        if (!isInMemory()) {
+            return;
+        }
+
+        remainingSeats.clear();
+        dirtyFlights.clear();
+        for (SeatInventoryRow row : flightRepository.findSeatInventory()) {
+            int expected = row.expectedRemaining();
+            remainingSeats.put(row.flightId(), new AtomicInteger(expected));
+            if (!Integer.valueOf(expected).equals(row.remainingSeats())) {
+                dirtyFlights.add(row.flightId());
+            }
+        }
+        log.info("Seat inventory rebuilt for {} flights ({} repaired)", remainingSeats.size(), dirtyFlights.size());
+    }
+
+    /**
+     * Compara los asientos restantes que se están usando para admitir reservas con
+     * capacidad - bookings persistidos. Con reservas en curso puede reportar diferencias transitorias.
+     */
+    public SeatInventoryCheckDTO checkConsistency() {
+        List<SeatInventoryRow> rows = flightRepository.findSeatInventory();
+        List<SeatInventoryMismatchDTO> mismatches = new ArrayList<>();
+
+        for (SeatInventoryRow row : rows) {
+            Integer tracked = row.remainingSeats();
+            if (isInMemory()) {
+                AtomicInteger counter = remainingSeats.get(row.flightId());
+                if (counter == null) {
+                    continue;
+                }
+                tracked = counter.get();
+            }
+            if (tracked == null || tracked != row.expectedRemaining()) {
+                mismatches.add(new SeatInventoryMismatchDTO(String.valueOf(row.flightId()),
+                        tracked, row.expectedRemaining()));
+            }
+        }
+
+        return new SeatInventoryCheckDTO(mode, rows.size(), mismatches);
+    }
+
+    /**
+     * Se llama tras borrar todos los bookings: cada vuelo vuelve a tener toda su capacidad.
+     */
+    public void reset() {
+        flightRepository.resetRemainingSeats();
+        remainingSeats.clear();
+        dirtyFlights.clear();
+    }
+}
@@ -38,7 +38,8 @@ public class UserService {
         return savedUser.getId();
     }
 
-    private void validateUserRegistration(RegisterUserDTO dto) {
+    // Package-private para los benchmarks JMH (src/jmh/java)
+    void validateUserRegistration(RegisterUserDTO dto) {
         // Campos mandatorios
         if (dto.getFirstName() == null || dto.getFirstName().trim().isEmpty()) {
             throw new IllegalArgumentException("First name is mandatory");
@@ -80,6 +81,25 @@ public class UserService {
         }
     }
 
+    /**
+     * Login: carga el usuario una sola vez y verifica el hash BCrypt. Si el hash se generó con un costo menor
+     * al configurado ({@code security.bcrypt.strength}) se vuelve a calcular con la contraseña recién verificada.
+     */
+    @Transactional
+    public User authenticate(String email, String password) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown email"));
+
+        if (!passwordEncoder.matches(password, user.getPassword())) {
+            throw new IllegalArgumentException("Wrong password");
+        }
+
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(password));
+        }
+        return user;
+    }
+
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
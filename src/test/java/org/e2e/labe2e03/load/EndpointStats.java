@@ -0,0 +1,71 @@
+package org.e2e.labe2e03.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Resultados por endpoint: latencias en microsegundos (HdrHistogram) y conteo por tipo de respuesta
+public class EndpointStats {
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final AtomicLong ok = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public void record(int status, long latencyNanos) {
+        if (status < 300) {
+            ok.incrementAndGet();
+        } else if (status < 500) {
+            rejected.incrementAndGet();
+        } else {
+            errors.incrementAndGet();
+        }
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue()));
+    }
+
+    public void recordFailure() {
+        errors.incrementAndGet();
+    }
+
+    public long completed() {
+        return ok.get() + rejected.get();
+    }
+
+    public long ok() {
+        return ok.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public double throughput(double seconds) {
+        return completed() / seconds;
+    }
+
+    public static String header() {
+        return String.format("%-10s %10s %8s %8s %6s %9s %9s %9s %9s %9s",
+                "endpoint", "req/s", "ok", "4xx", "err", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    public String format(double seconds) {
+        return String.format("%-10s %10.1f %8d %8d %6d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, throughput(seconds), ok.get(), rejected.get(), errors.get(),
+                millis(50), millis(90), millis(99), millis(99.9), latencies.getMaxValue() / 1000.0);
+    }
+
+    private double millis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
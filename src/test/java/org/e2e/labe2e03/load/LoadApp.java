@@ -0,0 +1,86 @@
+package org.e2e.labe2e03.load;
+
+import org.e2e.labe2e03.LabE2e03Application;
+import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Arranque de la app sobre un H2 en memoria propio y siembra de datos por la API, para los runners de carga.
+ */
+public final class LoadApp {
+
+    private LoadApp() {
+    }
+
+    public static ConfigurableApplicationContext boot(String database, String... profiles) {
+        return new SpringApplicationBuilder(LabE2e03Application.class)
+                .profiles(profiles)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + database,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.e2e.labe2e03=WARN",
+                        "logging.level.org.springframework.security=WARN",
+                        "security.bcrypt.strength=" + Integer.getInteger("load.bcrypt-strength", 10))
+                .run();
+    }
+
+    public static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    /**
+     * Registra los usuarios {@code 0..users-1} en paralelo (acotado: BCrypt domina) y devuelve sus tokens.
+     */
+    public static List<String> registerUsers(LoadClient client, int users) throws Exception {
+        Semaphore inFlight = new Semaphore(Integer.getInteger("load.setup-concurrency", 32));
+        List<Future<String>> tokens = new ArrayList<>(users);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                int user = i;
+                tokens.add(executor.submit(() -> {
+                    inFlight.acquire();
+                    try {
+                        client.register(user);
+                        return client.loginForToken(user);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+        List<String> result = new ArrayList<>(users);
+        for (Future<String> token : tokens) {
+            result.add(token.get());
+        }
+        return result;
+    }
+
+    /**
+     * Crea los vuelos {@code 0..flights-1} con /flights/create-many y devuelve sus ids. Son vuelos de 2h
+     * separados 3h, así un mismo cliente puede reservar varios sin solaparse.
+     */
+    public static List<Long> seedFlights(LoadClient client, String token, int flights, int seats) throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(30).withNano(0);
+        int batch = Integer.getInteger("load.seed-batch", 5000);
+        for (int from = 0; from < flights; from += batch) {
+            List<NewFlightRequestDTO> inputs = new ArrayList<>();
+            for (int i = from; i < Math.min(from + batch, flights); i++) {
+                LocalDateTime departure = start.plusHours(3L * i);
+                inputs.add(new NewFlightRequestDTO("Airline" + (i % 10), LoadClient.flightNumber(i),
+                        departure.toString(), departure.plusHours(2).toString(), seats));
+            }
+            client.createMany(token, inputs);
+        }
+        return client.allFlightIds(token);
+    }
+}
@@ -0,0 +1,157 @@
+package org.e2e.labe2e03.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.e2e.labe2e03.dto.request.FlightBookRequestDTO;
+import org.e2e.labe2e03.dto.request.LoginDTO;
+import org.e2e.labe2e03.dto.request.NewFlightManyRequestDTO;
+import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
+import org.e2e.labe2e03.dto.request.RegisterUserDTO;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+// Cliente HTTP mínimo de la API para los runners de carga; los métodos de carga devuelven el status
+public class LoadClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public LoadClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static String email(int user) {
+        return "load" + user + "@flyaway.test";
+    }
+
+    public static String password(int user) {
+        return "Load" + user + "pass";
+    }
+
+    // Números de vuelo válidos para ^[A-Z]{2,3}[0-9]{3}$, únicos hasta 676.000 vuelos
+    public static String flightNumber(int flight) {
+        return "" + (char) ('A' + flight / 26_000 % 26) + (char) ('A' + flight / 1000 % 26)
+                + String.format("%03d", flight % 1000);
+    }
+
+    public void register(int user) throws Exception {
+        expectOk(post("/users/register", null, new RegisterUserDTO("Load", "User" + user, email(user), password(user))));
+    }
+
+    public String loginForToken(int user) throws Exception {
+        HttpResponse<String> response = post("/auth/login", null, new LoginDTO(email(user), password(user)));
+        return expectOk(response).get("token").asText();
+    }
+
+    public int login(int user) throws Exception {
+        return post("/auth/login", null, new LoginDTO(email(user), password(user))).statusCode();
+    }
+
+    public Long createFlight(String token, NewFlightRequestDTO flight) throws Exception {
+        return expectOk(post("/flights/create", token, flight)).get("id").asLong();
+    }
+
+    /**
+     * Envía un create-many y espera a que el job termine; si el pool de import está lleno (503)
+     * reintenta tras el Retry-After.
+     */
+    public void createMany(String token, List<NewFlightRequestDTO> flights) throws Exception {
+        HttpResponse<String> response;
+        while ((response = post("/flights/create-many", token, new NewFlightManyRequestDTO(flights)))
+                .statusCode() == 503) {
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(Duration.ofSeconds(retryAfter));
+        }
+        String jobId = expectOk(response).get("jobId").asText();
+
+        while (true) {
+            JsonNode job = expectOk(get("/flights/create-many/" + jobId, token));
+            if ("COMPLETED".equals(job.get("status").asText())) {
+                if (job.get("failedRows").asInt() > 0) {
+                    throw new IllegalStateException("Seeding job " + jobId + " rejected "
+                            + job.get("failedRows").asInt() + " flights: " + job.get("errors").get(0));
+                }
+                return;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    // Recorre todas las páginas de la búsqueda sin filtros siguiendo nextCursor
+    public List<Long> allFlightIds(String token) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String query = "/flights/search?limit=1000"
+                    + (cursor != null ? "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : "");
+            JsonNode page = expectOk(get(query, token));
+            for (JsonNode item : page.get("items")) {
+                ids.add(item.get("id").asLong());
+            }
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    public int search(String token, String query) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/flights/search?" + query)), token, null);
+    }
+
+    public int book(String token, Long flightId) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/flights/book")), token,
+                new FlightBookRequestDTO(flightId));
+    }
+
+    public JsonNode getJson(String path, String token) throws Exception {
+        return expectOk(get(path, token));
+    }
+
+    private int send(HttpRequest.Builder builder, String token, Object body) throws Exception {
+        return http.send(build(builder, token, body), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        return http.send(build(HttpRequest.newBuilder(URI.create(baseUrl + path)), token, null),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String token, Object body) throws Exception {
+        return http.send(build(HttpRequest.newBuilder(URI.create(baseUrl + path)), token, body),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest build(HttpRequest.Builder builder, String token, Object body) throws Exception {
+        builder.timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (body == null) {
+            return builder.GET().build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private static JsonNode expectOk(HttpResponse<String> response) throws Exception {
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(response.request().uri() + " -> " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return MAPPER.readTree(response.body());
+    }
+}
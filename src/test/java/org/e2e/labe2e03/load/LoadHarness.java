@@ -0,0 +1,162 @@
+package org.e2e.labe2e03.load;
+
+import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Carga end-to-end sobre la app real (H2 en memoria, puerto aleatorio).
+ * <p>
+ * Escenario {@code mixed}: registra {@code load.users} usuarios, siembra {@code load.flights} vuelos con
+ * /flights/create-many y durante {@code load.seconds} segundos {@code load.clients} clientes concurrentes
+ * reparten sus peticiones según {@code load.mix} (pesos, p. ej. {@code login=10,search=70,book=20}).
+ * <p>
+ * Escenario {@code hot-flight}: un solo vuelo con {@code load.hot-seats} asientos y todos los usuarios
+ * intentando reservarlo a la vez; debe haber exactamente {@code hot-seats} bookings.
+ * <p>
+ * Se ejecuta a mano: {@code mvn test-compile exec:java -Dexec.mainClass=org.e2e.labe2e03.load.LoadHarness
+ * -Dload.scenario=hot-flight -Dload.users=5000} (el pom ya pone {@code classpathScope=test} para exec).
+ * {@code load.profile=virtual} arranca la app con hilos virtuales.
+ */
+public class LoadHarness {
+
+    private final String scenario = System.getProperty("load.scenario", "mixed");
+    private final String profile = System.getProperty("load.profile", "");
+    private final int users = Integer.getInteger("load.users", 500);
+    private final int flights = Integer.getInteger("load.flights", 2000);
+    private final int seats = Integer.getInteger("load.seats", 200);
+    private final int hotSeats = Integer.getInteger("load.hot-seats", 10);
+    private final int clients = Integer.getInteger("load.clients", 200);
+    private final int seconds = Integer.getInteger("load.seconds", 60);
+    private final Map<String, Integer> mix = parseMix(System.getProperty("load.mix", "login=10,search=70,book=20"));
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness().run();
+    }
+
+    void run() throws Exception {
+        String[] profiles = profile.isEmpty() ? new String[0] : profile.split(",");
+        try (ConfigurableApplicationContext context = LoadApp.boot("load-" + scenario, profiles)) {
+            LoadClient client = new LoadClient(LoadApp.baseUrl(context));
+            long setupStarted = System.nanoTime();
+            List<String> tokens = LoadApp.registerUsers(client, users);
+            System.out.printf("Registered %d users in %.1fs%n", users, (System.nanoTime() - setupStarted) / 1e9);
+
+            switch (scenario) {
+                case "mixed" -> mixed(client, tokens);
+                case "hot-flight" -> hotFlight(client, tokens);
+                default -> throw new IllegalArgumentException("Unknown load.scenario: " + scenario);
+            }
+        }
+    }
+
+    private void mixed(LoadClient client, List<String> tokens) throws Exception {
+        long seedStarted = System.nanoTime();
+        List<Long> flightIds = LoadApp.seedFlights(client, tokens.get(0), flights, seats);
+        System.out.printf("Seeded %d flights in %.1fs%n", flightIds.size(), (System.nanoTime() - seedStarted) / 1e9);
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        mix.keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats(endpoint)));
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String endpoint = pick(random.nextInt(totalWeight));
+                        int user = random.nextInt(tokens.size());
+                        long started = System.nanoTime();
+                        try {
+                            int status = switch (endpoint) {
+                                case "login" -> client.login(user);
+                                case "search" -> client.search(tokens.get(user), random.nextBoolean()
+                                        ? "airlineName=Airline" + random.nextInt(10) + "&limit=20"
+                                        : "flightNumber=" + LoadClient.flightNumber(random.nextInt(flights)).substring(0, 3)
+                                        + "&limit=20");
+                                case "book" -> client.book(tokens.get(user), flightIds.get(random.nextInt(flightIds.size())));
+                                default -> throw new IllegalArgumentException("Unknown endpoint in load.mix: " + endpoint);
+                            };
+                            stats.get(endpoint).record(status, System.nanoTime() - started);
+                        } catch (Exception e) {
+                            stats.get(endpoint).recordFailure();
+                        }
+                    }
+                });
+            }
+        }
+
+        System.out.printf("%nmixed: %d clients, %ds, mix %s%n", clients, seconds, mix);
+        System.out.println(EndpointStats.header());
+        stats.values().forEach(s -> System.out.println(s.format(seconds)));
+    }
+
+    private void hotFlight(LoadClient client, List<String> tokens) throws Exception {
+        LocalDateTime departure = LocalDateTime.now().plusDays(7).withNano(0);
+        Long flightId = client.createFlight(tokens.get(0), new NewFlightRequestDTO("HotAir", "HOT001",
+                departure.toString(), departure.plusHours(2).toString(), hotSeats));
+
+        EndpointStats stats = new EndpointStats("book");
+        CountDownLatch start = new CountDownLatch(1);
+        long elapsed;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String token : tokens) {
+                executor.submit(() -> {
+                    start.await();
+                    long started = System.nanoTime();
+                    try {
+                        stats.record(client.book(token, flightId), System.nanoTime() - started);
+                    } catch (Exception e) {
+                        stats.recordFailure();
+                    }
+                    return null;
+                });
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            while (!executor.isTerminated()) {
+                Thread.sleep(10);
+            }
+            elapsed = System.nanoTime() - started;
+        }
+
+        System.out.printf("%nhot-flight: %d users racing for %d seats%n", tokens.size(), hotSeats);
+        System.out.println(EndpointStats.header());
+        System.out.println(stats.format(elapsed / 1e9));
+        System.out.println("seat inventory check: " + client.getJson("/flights/inventory/consistency", tokens.get(0)));
+        if (stats.ok() != Math.min(hotSeats, tokens.size())) {
+            throw new IllegalStateException("Expected " + Math.min(hotSeats, tokens.size())
+                    + " bookings for the hot flight, got " + stats.ok());
+        }
+    }
+
+    private String pick(int roll) {
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty load.mix");
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            weights.put(entry[0].trim(), Integer.parseInt(entry[1].trim()));
+        }
+        return weights;
+    }
+}
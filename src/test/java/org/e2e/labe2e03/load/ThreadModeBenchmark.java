@@ -0,0 +1,82 @@
+package org.e2e.labe2e03.load;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compara el throughput de la app con hilos de plataforma y con hilos virtuales (perfil {@code virtual})
+ * bajo una mezcla de búsquedas y bookings.
+ * <p>
+ * No es un test: se ejecuta a mano desde el IDE o con
+ * {@code mvn test-compile exec:java -Dexec.mainClass=org.e2e.labe2e03.load.ThreadModeBenchmark}.
+ * Parámetros por system property: {@code bench.users}, {@code bench.flights}, {@code bench.clients},
+ * {@code bench.seconds}, {@code bench.book-ratio}.
+ */
+public class ThreadModeBenchmark {
+
+    private final int users = Integer.getInteger("bench.users", 200);
+    private final int flights = Integer.getInteger("bench.flights", 500);
+    private final int clients = Integer.getInteger("bench.clients", 400);
+    private final int seconds = Integer.getInteger("bench.seconds", 30);
+    private final double bookRatio = Double.parseDouble(System.getProperty("bench.book-ratio", "0.2"));
+
+    public static void main(String[] args) throws Exception {
+        ThreadModeBenchmark benchmark = new ThreadModeBenchmark();
+        EndpointStats platform = benchmark.run(false);
+        EndpointStats virtual = benchmark.run(true);
+
+        System.out.println();
+        System.out.println(EndpointStats.header());
+        System.out.println(platform.format(benchmark.seconds));
+        System.out.println(virtual.format(benchmark.seconds));
+        System.out.printf("virtual/platform throughput: %.2fx%n",
+                virtual.throughput(benchmark.seconds) / platform.throughput(benchmark.seconds));
+    }
+
+    EndpointStats run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        String[] profiles = virtualThreads ? new String[]{"virtual"} : new String[0];
+
+        try (ConfigurableApplicationContext context = LoadApp.boot("bench-" + mode, profiles)) {
+            LoadClient client = new LoadClient(LoadApp.baseUrl(context));
+            List<String> tokens = LoadApp.registerUsers(client, users);
+            List<Long> flightIds = LoadApp.seedFlights(client, tokens.get(0), flights, 1_000_000);
+
+            // Calentamiento corto para que JIT, pools y cachés no penalicen al primer modo
+            drive(client, tokens, flightIds, new EndpointStats(mode), Math.max(1, seconds / 5));
+            EndpointStats stats = new EndpointStats(mode);
+            drive(client, tokens, flightIds, stats, seconds);
+            return stats;
+        }
+    }
+
+    private void drive(LoadClient client, List<String> tokens, List<Long> flightIds, EndpointStats stats,
+                       int durationSeconds) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String token = tokens.get(random.nextInt(tokens.size()));
+                        long started = System.nanoTime();
+                        try {
+                            int status = random.nextDouble() < bookRatio
+                                    ? client.book(token, flightIds.get(random.nextInt(flightIds.size())))
+                                    : client.search(token, "airlineName=Airline" + random.nextInt(10) + "&limit=20");
+                            stats.record(status, System.nanoTime() - started);
+                        } catch (Exception e) {
+                            stats.recordFailure();
+                        }
+                    }
+                });
+            }
+        }
+    }
+}
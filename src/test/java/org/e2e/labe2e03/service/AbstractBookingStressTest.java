@@ -0,0 +1,263 @@
+package org.e2e.labe2e03.service;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.e2e.labe2e03.dto.request.FlightBookManyRequestDTO;
+import org.e2e.labe2e03.dto.request.FlightBookRequestDTO;
+import org.e2e.labe2e03.dto.request.NewFlightRequestDTO;
+import org.e2e.labe2e03.entity.Booking;
+import org.e2e.labe2e03.entity.User;
+import org.e2e.labe2e03.exception.BookingRejectedException;
+import org.e2e.labe2e03.repository.BookingRepository;
+import org.e2e.labe2e03.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Martilla {@link BookingService#bookFlight} y {@link BookingService#bookFlights} desde muchos hilos a la vez
+ * y verifica los invariantes:
+ * ningún vuelo con más bookings que asientos y ningún cliente con bookings solapados.
+ * Imprime cuántos intentos se rechazaron por motivo y cuánto esperaron (p50/p99/max).
+ * Cada subclase fija una combinación de {@code booking.seat-inventory.mode} / {@code booking.overlap-index.enabled}.
+ * Corre con el resto de {@code mvn test}; por separado: {@code mvn test -Dtest='*BookingStressTest' -Dstress.threads=64}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.e2e.labe2e03=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "email.outbox.poll-interval-ms=3600000"
+})
+abstract class AbstractBookingStressTest {
+
+    static final int THREADS = Integer.getInteger("stress.threads", 32);
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    FlightService flightService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookingService.deleteAll();
+        flightService.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentBookingsNeverOversellAFlight() throws Exception {
+        int seats = 5;
+        List<Long> users = createUsers(100);
+        // Vuelos en días distintos: el único motivo de rechazo esperado es el cupo
+        List<Long> flights = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        for (int i = 0; i < 10; i++) {
+            flights.add(createFlight("OS" + String.format("%03d", i), start.plusDays(i), seats));
+        }
+
+        List<Attempt> attempts = new ArrayList<>();
+        for (Long user : users) {
+            for (Long flight : flights) {
+                attempts.add(new Attempt(user, List.of(flight)));
+            }
+        }
+        StressResult result = hammer(attempts);
+        result.print("oversell");
+
+        Map<Long, Long> bookingsPerFlight = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(booking -> booking.getFlight().getId(), Collectors.counting()));
+        for (Long flight : flights) {
+            assertThat(bookingsPerFlight.getOrDefault(flight, 0L)).isLessThanOrEqualTo(seats);
+        }
+        // Con 100 interesados por vuelo todos los asientos se venden
+        assertThat(result.succeeded()).isEqualTo((long) seats * flights.size());
+        assertThat(result.outcomes()).containsOnlyKeys("success", "oversold");
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlapForACustomer() throws Exception {
+        List<Long> users = createUsers(5);
+        // Vuelos de 2h que salen cada 30 min: cada uno se solapa con sus tres vecinos de cada lado
+        List<Long> flights = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        for (int i = 0; i < 40; i++) {
+            flights.add(createFlight("OV" + String.format("%03d", i), start.plusMinutes(30L * i), 1000));
+        }
+
+        List<Attempt> attempts = new ArrayList<>();
+        for (int round = 0; round < 2; round++) {
+            for (Long user : users) {
+                for (Long flight : flights) {
+                    attempts.add(new Attempt(user, List.of(flight)));
+                }
+            }
+        }
+        StressResult result = hammer(attempts);
+        result.print("overlap");
+
+        assertNoOverlappingBookings();
+        assertThat(result.succeeded()).isPositive();
+        assertThat(result.outcomes()).containsOnlyKeys("success", "overlap");
+    }
+
+    @Test
+    void concurrentMultiLegAndSingleBookingsNeverDeadlock() throws Exception {
+        int seats = 10;
+        List<Long> users = createUsers(10);
+        // Vuelos de 2h cada 3h: los tramos no se solapan, así que todo choca en los mismos asientos y clientes
+        List<Long> flights = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        for (int i = 0; i < 6; i++) {
+            flights.add(createFlight("ML" + String.format("%03d", i), start.plusHours(3L * i), seats));
+        }
+
+        // Cada cliente pide los pares de vuelos vecinos en ambos órdenes y cada vuelo suelto a la vez:
+        // con los locks en distinto orden, book-many (F1, F2) y book (F2) del mismo cliente se bloquean mutuamente
+        List<Attempt> attempts = new ArrayList<>();
+        for (Long user : users) {
+            for (int i = 1; i < flights.size(); i++) {
+                attempts.add(new Attempt(user, List.of(flights.get(i - 1), flights.get(i))));
+                attempts.add(new Attempt(user, List.of(flights.get(i), flights.get(i - 1))));
+            }
+            for (Long flight : flights) {
+                attempts.add(new Attempt(user, List.of(flight)));
+            }
+        }
+        StressResult result = hammer(attempts);
+        result.print("multi-leg");
+
+        assertNoOverlappingBookings();
+        Map<Long, Long> bookingsPerFlight = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(booking -> booking.getFlight().getId(), Collectors.counting()));
+        for (Long flight : flights) {
+            assertThat(bookingsPerFlight.getOrDefault(flight, 0L)).isLessThanOrEqualTo(seats);
+        }
+        assertThat(result.succeeded()).isPositive();
+        // Un vuelo ya lleno rechaza por cupo antes de mirar el solapamiento; cualquier otro error (lock timeout) falla
+        assertThat(result.outcomes().keySet()).isSubsetOf("success", "overlap", "oversold");
+    }
+
+    private void assertNoOverlappingBookings() {
+        Map<Long, List<Booking>> bookingsPerCustomer = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(booking -> booking.getCustomer().getId()));
+        for (List<Booking> bookings : bookingsPerCustomer.values()) {
+            bookings.sort(Comparator.comparing(booking -> booking.getFlight().getEstDepartureTime()));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertThat(bookings.get(i).getFlight().getEstDepartureTime())
+                        .isAfter(bookings.get(i - 1).getFlight().getEstArrivalTime());
+            }
+        }
+    }
+
+    private StressResult hammer(List<Attempt> attempts) throws Exception {
+        List<Attempt> shuffled = new ArrayList<>(attempts);
+        Collections.shuffle(shuffled);
+
+        StressResult result = new StressResult();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Attempt attempt : shuffled) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long started = System.nanoTime();
+                    String outcome;
+                    try {
+                        if (attempt.flightIds().size() == 1) {
+                            bookingService.bookFlight(new FlightBookRequestDTO(attempt.flightIds().get(0)), attempt.userId());
+                        } else {
+                            bookingService.bookFlights(new FlightBookManyRequestDTO(attempt.flightIds()), attempt.userId());
+                        }
+                        outcome = "success";
+                    } catch (BookingRejectedException e) {
+                        outcome = e.getOutcome();
+                    }
+                    result.record(outcome, System.nanoTime() - started);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // Cualquier otra excepción (deadlock, error de BD) hace fallar el test
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
+    private List<Long> createUsers(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setFirstName("Stress");
+            user.setLastName("User" + i);
+            user.setEmail("stress" + i + "@flyaway.test");
+            user.setPassword("not-a-real-hash");
+            ids.add(userRepository.save(user).getId());
+        }
+        return ids;
+    }
+
+    private Long createFlight(String flightNumber, LocalDateTime departure, int seats) {
+        return flightService.createFlight(new NewFlightRequestDTO("StressAir", flightNumber,
+                departure.toString(), departure.plusHours(2).toString(), seats));
+    }
+
+    record Attempt(Long userId, List<Long> flightIds) {
+    }
+
+    static class StressResult {
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final Map<String, Histogram> waits = new ConcurrentHashMap<>();
+
+        void record(String outcome, long waitNanos) {
+            outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+            waits.computeIfAbsent(outcome, key -> new ConcurrentHistogram(3))
+                    .recordValue(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+        }
+
+        long succeeded() {
+            LongAdder success = outcomes.get("success");
+            return success == null ? 0 : success.sum();
+        }
+
+        Map<String, Long> outcomes() {
+            return outcomes.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+        }
+
+        void print(String scenario) {
+            System.out.printf("[%s] %d threads%n", scenario, THREADS);
+            new TreeMap<>(waits).forEach((outcome, histogram) -> System.out.printf(
+                    "  %-10s %6d attempts  wait p50 %.2f ms  p99 %.2f ms  max %.2f ms%n",
+                    outcome, histogram.getTotalCount(), histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.e2e.labe2e03.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ConfirmationArchive} sin Spring: segmentos chicos para forzar rotaciones y compactación.
+ */
+class ConfirmationArchiveTest {
+
+    // Cabecera de 12 bytes + cuerpo de 22: tres registros por segmento de 128 bytes
+    private static final long SEGMENT_MAX_BYTES = 128;
+
+    @TempDir
+    Path directory;
+
+    private ConfirmationArchive archive;
+
+    @AfterEach
+    void closeArchive() throws IOException {
+        if (archive != null) {
+            archive.close();
+        }
+    }
+
+    private ConfirmationArchive open() throws IOException {
+        ConfirmationArchive opened = new ConfirmationArchive();
+        ReflectionTestUtils.setField(opened, "mode", "segments");
+        ReflectionTestUtils.setField(opened, "directory", directory);
+        ReflectionTestUtils.setField(opened, "segmentMaxBytes", SEGMENT_MAX_BYTES);
+        ReflectionTestUtils.setField(opened, "compactionThreshold", 0.5);
+        opened.open();
+        return opened;
+    }
+
+    private static String body(long bookingId, int version) {
+        return String.format("booking %04d copy %04d", bookingId, version);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void rotatesWhenTheSegmentIsFullAndFindsEveryRecord() throws IOException {
+        archive = open();
+        for (long id = 1; id <= 10; id++) {
+            archive.append(id, body(id, 1));
+        }
+        archive.sync();
+
+        assertThat(segments()).hasSize(4);
+        for (Path segment : segments()) {
+            assertThat(Files.size(segment)).isLessThanOrEqualTo(SEGMENT_MAX_BYTES);
+        }
+        for (long id = 1; id <= 10; id++) {
+            assertThat(archive.find(id)).contains(body(id, 1));
+        }
+        assertThat(archive.find(11)).isEmpty();
+    }
+
+    @Test
+    void reopenTruncatesATornTailRecordAndKeepsAppending() throws IOException {
+        archive = open();
+        archive.append(1, body(1, 1));
+        archive.append(2, body(2, 1));
+        archive.close();
+
+        Path active = segments().get(segments().size() - 1);
+        long intact = Files.size(active);
+        // La cabecera anuncia 20 bytes de cuerpo pero solo llegaron 5, como tras un corte de luz
+        ByteBuffer torn = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + 5);
+        torn.putLong(3).putInt(20).put("trunc".getBytes()).flip();
+        Files.write(active, torn.array(), StandardOpenOption.APPEND);
+
+        archive = open();
+
+        assertThat(Files.size(active)).isEqualTo(intact);
+        assertThat(archive.size()).isEqualTo(2);
+        assertThat(archive.find(3)).isEmpty();
+        archive.append(3, body(3, 1));
+        archive.sync();
+        assertThat(archive.find(1)).contains(body(1, 1));
+        assertThat(archive.find(3)).contains(body(3, 1));
+
+        archive.close();
+        archive = open();
+        assertThat(archive.find(3)).contains(body(3, 1));
+    }
+
+    @Test
+    void compactionDropsSupersededCopiesAndLookupStillReturnsTheLatest() throws IOException {
+        archive = open();
+        // El outbox entrega al menos una vez: los bookings 1 y 2 se archivan una y otra vez
+        for (int version = 1; version <= 20; version++) {
+            archive.append(1, body(1, version));
+            archive.append(2, body(2, version));
+        }
+        archive.append(3, body(3, 1));
+        archive.sync();
+
+        // Sin compactación serían 14 segmentos; solo quedan los que contienen la última copia
+        assertThat(segments().size()).isLessThanOrEqualTo(3);
+        assertThat(archive.size()).isEqualTo(3);
+        assertThat(archive.find(1)).contains(body(1, 20));
+        assertThat(archive.find(2)).contains(body(2, 20));
+        assertThat(archive.find(3)).contains(body(3, 1));
+
+        archive.close();
+        archive = open();
+        assertThat(archive.find(1)).contains(body(1, 20));
+        assertThat(archive.find(2)).contains(body(2, 20));
+        assertThat(archive.find(3)).contains(body(3, 1));
+    }
+
+    @Test
+    void clearForgetsDeletedBookingsAndRemovesSealedSegments() throws IOException {
+        archive = open();
+        for (long id = 1; id <= 10; id++) {
+            archive.append(id, body(id, 1));
+        }
+        archive.sync();
+
+        archive.clear();
+
+        assertThat(segments()).hasSize(1);
+        assertThat(archive.size()).isZero();
+        assertThat(archive.find(1)).isEmpty();
+        archive.append(11, body(11, 1));
+        archive.sync();
+        assertThat(archive.find(11)).contains(body(11, 1));
+    }
+}
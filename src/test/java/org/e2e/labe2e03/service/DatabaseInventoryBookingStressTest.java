@@ -0,0 +1,12 @@
+package org.e2e.labe2e03.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Todo contra la BD: UPDATE condicional de asientos y check de solapamiento con lock por cliente
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stress-database;LOCK_TIMEOUT=10000",
+        "booking.seat-inventory.mode=database",
+        "booking.overlap-index.enabled=false"
+})
+class DatabaseInventoryBookingStressTest extends AbstractBookingStressTest {
+}
@@ -0,0 +1,171 @@
+package org.e2e.labe2e03.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link DateTimeCodec} tiene que ser indistinguible de lo que reemplaza: {@code format} contra la salida de
+ * {@code ISO_DATE_TIME} y {@code parse} contra el parseo anterior (ISO y, si falla, el formato del tester).
+ */
+class DateTimeCodecTest {
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_DATE_TIME;
+    private static final DateTimeFormatter TESTER =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.ENGLISH);
+
+    // Copia del parseDateTime que tenían FlightService y BookingService antes del codec
+    private static LocalDateTime legacyParse(String text) {
+        try {
+            return LocalDateTime.parse(text, ISO);
+        } catch (DateTimeParseException e) {
+            try {
+                return ZonedDateTime.parse(text, TESTER).toLocalDateTime();
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid date format: " + text);
+            }
+        }
+    }
+
+    private static void assertParsesLikeLegacy(String text) {
+        LocalDateTime expected;
+        try {
+            expected = legacyParse(text);
+        } catch (IllegalArgumentException e) {
+            assertThatThrownBy(() -> DateTimeCodec.parse(text))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage(e.getMessage());
+            return;
+        }
+        assertThat(DateTimeCodec.parse(text)).as(text).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {
+            0, 100_000_000, 120_000_000, 123_000_000, 123_400_000, 123_450_000, 123_456_000,
+            123_456_700, 123_456_780, 123_456_789, 1, 10, 1_000, 1_000_000, 500_000_000, 999_999_999
+    })
+    void formatMatchesIsoForEveryFractionLength(int nano) {
+        LocalDateTime value = LocalDateTime.of(2030, 6, 1, 9, 5, 7, nano);
+
+        String formatted = DateTimeCodec.format(value);
+
+        assertThat(formatted).isEqualTo(value.format(ISO));
+        assertThat(DateTimeCodec.parse(formatted)).isEqualTo(value);
+    }
+
+    @Test
+    void formatToWritesTheSameCharsAsFormat() {
+        LocalDateTime value = LocalDateTime.of(2030, 12, 31, 23, 59, 59, 10_000);
+        char[] buffer = new char[DateTimeCodec.MAX_FORMATTED_LENGTH];
+
+        int length = DateTimeCodec.formatTo(value, buffer);
+
+        assertThat(new String(buffer, 0, length)).isEqualTo(value.format(ISO));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 999, 9999, -1, 10000, 123456})
+    void formatMatchesIsoAtAndBeyondTheFourDigitYearRange(int year) {
+        LocalDateTime value = LocalDateTime.of(year, 1, 2, 3, 4, 5, 600_000_000);
+
+        assertThat(DateTimeCodec.format(value)).isEqualTo(value.format(ISO));
+    }
+
+    @Test
+    void formatAndParseMatchIsoForRandomValues() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int nano = switch (random.nextInt(4)) {
+                case 0 -> 0;
+                case 1 -> random.nextInt(1000) * 1_000_000;
+                default -> random.nextInt(1_000_000_000);
+            };
+            LocalDateTime value = LocalDateTime.of(random.nextInt(10000), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60), nano);
+
+            String iso = value.format(ISO);
+            assertThat(DateTimeCodec.format(value)).isEqualTo(iso);
+            assertThat(DateTimeCodec.parse(iso)).isEqualTo(value);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // 16: sin segundos
+            "2030-06-01T10:15",
+            // 17, 18 y 20: segundos o fracción incompletos
+            "2030-06-01T10:15:", "2030-06-01T10:15:3", "2030-06-01T10:15:30.",
+            // 19 y fracción de 1 a 9 dígitos, con y sin ceros finales
+            "2030-06-01T10:15:30", "2030-06-01T10:15:30.1", "2030-06-01T10:15:30.12",
+            "2030-06-01T10:15:30.123", "2030-06-01T10:15:30.1234", "2030-06-01T10:15:30.12345",
+            "2030-06-01T10:15:30.123456", "2030-06-01T10:15:30.1234567", "2030-06-01T10:15:30.12345678",
+            "2030-06-01T10:15:30.123456789", "2030-06-01T10:15:30.100", "2030-06-01T10:15:30.000000000",
+            // 10 dígitos de fracción
+            "2030-06-01T10:15:30.1234567890"
+    })
+    void parseMatchesLegacyForEveryLength(String text) {
+        assertParsesLikeLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-02-29T10:00", "2028-02-29T10:00:00", "2000-02-29T00:00",
+            "2030-02-29T10:00", "2100-02-29T10:00", "2030-02-30T10:00", "2030-04-31T10:00",
+            "2030-13-01T10:00", "2030-00-01T10:00", "2030-06-00T10:00"
+    })
+    void parseMatchesLegacyOnCalendarEdges(String text) {
+        assertParsesLikeLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2030-06-01T24:00", "2030-06-01T24:00:00", "2030-06-01T23:60", "2030-06-01T23:59:60",
+            "2030-06-01T23:59:60.5", "2030-06-01T-1:00", "2030-06-01T1a:00"
+    })
+    void parseRejectsOutOfRangeTimesLikeLegacy(String text) {
+        assertThatThrownBy(() -> DateTimeCodec.parse(text))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid date format: " + text);
+        assertParsesLikeLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2030-06-01T10:15:30Z", "2030-06-01T10:15:30+05:00", "2030-06-01T10:15:30.5-03:00",
+            "2030-06-01T10:15+01:00", "2030-06-01T10:15:30+01:00[Europe/Paris]", "2030-06-01T10:15:30Z[UTC]",
+            "2030-06-01t10:15:30", "+12030-06-01T10:15:30", "-0001-06-01T10:15:30"
+    })
+    void parseMatchesLegacyForOffsetZoneAndExpandedForms(String text) {
+        assertParsesLikeLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Sat Jun 01 10:15:30 UTC 2030", "Sat Jun 01 10:15:30 PET 2030", "Tue Dec 31 23:59:59 GMT 2030",
+            // Día de la semana que no corresponde, mes inválido, texto recortado
+            "Fri Jun 01 10:15:30 UTC 2030", "Sat Jux 01 10:15:30 UTC 2030", "Sat Jun 01 10:15:30 UTC"
+    })
+    void parseMatchesLegacyForTesterFormat(String text) {
+        assertParsesLikeLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "x", "2030", "2030-06-01", "01/06/2030 10:15", "2030/06/01T10:15", "2030-06-01 10:15"})
+    void parseRejectsOtherFormatsLikeLegacy(String text) {
+        assertThatThrownBy(() -> DateTimeCodec.parse(text))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid date format: " + text);
+        assertParsesLikeLegacy(text);
+    }
+}
@@ -0,0 +1,15 @@
+package org.e2e.labe2e03.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Índice de itinerarios que descarta clientes continuamente: cada reserva puede tener que recargar de la BD
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stress-evicting;LOCK_TIMEOUT=10000",
+        "booking.seat-inventory.mode=memory",
+        "booking.overlap-index.enabled=true",
+        "booking.overlap-index.idle-ttl-seconds=0",
+        "booking.overlap-index.max-customers=1",
+        "booking.overlap-index.sweep-interval-ms=1"
+})
+class EvictingItineraryBookingStressTest extends AbstractBookingStressTest {
+}
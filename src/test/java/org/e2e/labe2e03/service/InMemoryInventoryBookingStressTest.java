@@ -0,0 +1,12 @@
+package org.e2e.labe2e03.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Contadores de asientos en memoria e índice de itinerarios en memoria (un solo nodo)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stress-memory;LOCK_TIMEOUT=10000",
+        "booking.seat-inventory.mode=memory",
+        "booking.overlap-index.enabled=true"
+})
+class InMemoryInventoryBookingStressTest extends AbstractBookingStressTest {
+}